@@ -23,6 +23,7 @@ package com.watabou.glscripts;
 
 import com.watabou.glwrap.Program;
 import com.watabou.glwrap.Shader;
+import com.watabou.noosa.QuadBatch;
 import com.watabou.utils.Reflection;
 
 import java.util.HashMap;
@@ -39,6 +40,8 @@ public class Script extends Program {
 	public synchronized static<T extends Script> T use( Class<T> c ) {
 
 		if (c != curScriptClass) {
+
+			QuadBatch.flush();
 			
 			Script script = all.get( c );
 			if (script == null) {
@@ -56,11 +59,13 @@ public class Script extends Program {
 	}
 
 	public synchronized static void unuse(){
+		QuadBatch.flush();
 		curScript = null;
 		curScriptClass = null;
 	}
 	
 	public synchronized static void reset() {
+		QuadBatch.discard();
 		for (Script script:all.values()) {
 			script.delete();
 		}
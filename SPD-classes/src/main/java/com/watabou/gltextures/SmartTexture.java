@@ -38,6 +38,10 @@ public class SmartTexture extends Texture {
 	
 	public Pixmap bitmap;
 
+	//the cache key this texture can be loaded again from after being evicted, if it can be
+	Object source;
+	int pins;
+
 	public SmartTexture( Pixmap bitmap ) {
 		this( bitmap, NEAREST, CLAMP, false );
 	}
@@ -55,6 +59,7 @@ public class SmartTexture extends Texture {
 
 	@Override
 	protected void generate() {
+		restore();
 		super.generate();
 		bitmap( bitmap );
 		filter( fModeMin, fModeMax );
@@ -87,6 +92,7 @@ public class SmartTexture extends Texture {
 	}
 	
 	public int getPixel( int x, int y ){
+		restore();
 		int color = bitmap.getPixel(x, y);
 		// convert from libGdx RGBA to Noosa ARGB
 		return ( (color << 24) | (color >>> 8) );
@@ -105,6 +111,14 @@ public class SmartTexture extends Texture {
 		if (bitmap != null)
 			bitmap.dispose();
 		bitmap = null;
+		id = -1;
+	}
+
+	//an evicted texture is only reloaded if something still uses it
+	private void restore() {
+		if (bitmap == null && source != null) {
+			TextureCache.restore( this );
+		}
 	}
 	
 	public RectF uvRect( float left, float top, float right, float bottom ) {
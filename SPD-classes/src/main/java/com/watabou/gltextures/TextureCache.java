@@ -26,102 +26,159 @@ import com.badlogic.gdx.graphics.Pixmap;
 import com.watabou.glwrap.Texture;
 import com.watabou.noosa.Game;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
+//Textures are kept in least recently used order. Once the cache holds more than its budget,
+//textures which nothing has pinned and which can be loaded again from their key are evicted.
+//Images pin the texture they show, anything else that keeps an evicted texture gets it reloaded
+//the next time it is bound.
 public class TextureCache {
-	
-	private static HashMap<Object,SmartTexture> all = new HashMap<>();
+
+	//RGBA8888, 4 bytes per pixel
+	private static final int BYTES_PER_PIXEL = 4;
+
+	private static LinkedHashMap<Object,SmartTexture> all = new LinkedHashMap<>( 16, 0.75f, true );
+	//evicted textures by key, so a later request gets back the same instance anything else still holds
+	private static HashMap<Object,SmartTexture> evicted = new HashMap<>();
+
+	private static long budget = 48 * 1024 * 1024;
+	private static long bytes = 0;
+
+	private static long hits = 0;
+	private static long misses = 0;
+	private static long evictions = 0;
+
+	private static class SolidKey {
+
+		final int color;
+
+		SolidKey( int color ){
+			this.color = color;
+		}
+
+		@Override
+		public boolean equals( Object o ) {
+			return o instanceof SolidKey && ((SolidKey)o).color == color;
+		}
+
+		@Override
+		public int hashCode() {
+			return color;
+		}
+	}
+
+	private static class GradientKey {
+
+		final int[] colors;
+
+		GradientKey( int[] colors ){
+			this.colors = colors.clone();
+		}
+
+		@Override
+		public boolean equals( Object o ) {
+			return o instanceof GradientKey && Arrays.equals( ((GradientKey)o).colors, colors );
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode( colors );
+		}
+	}
 
 	public synchronized static SmartTexture createSolid( int color ) {
-		final String key = "1x1:" + color;
-		
-		if (all.containsKey( key )) {
-			
-			return all.get( key );
-			
-		} else {
-			
-			Pixmap pixmap =new Pixmap( 1, 1, Pixmap.Format.RGBA8888 );
-			// convert from Noosa ARGB to libGdx RGBA
-			pixmap.setColor( (color << 8) | (color >>> 24) );
-			pixmap.fill();
-			
-			SmartTexture tx = new SmartTexture( pixmap );
-			all.put( key, tx );
-			
-			return tx;
+		SolidKey key = new SolidKey( color );
+
+		SmartTexture tx = find( key );
+		if (tx == null) {
+			tx = new SmartTexture( load( key ) );
+			add( key, tx, true );
 		}
+		return tx;
 	}
 	
 	public synchronized static SmartTexture createGradient( int... colors ) {
-		
-		final String key = "" + colors;
-		
-		if (all.containsKey( key )) {
-			
-			return all.get( key );
-			
-		} else {
-			
-			Pixmap pixmap = new Pixmap( colors.length, 1, Pixmap.Format.RGBA8888);
-			for (int i=0; i < colors.length; i++) {
-				// convert from Noosa ARGB to libGdx RGBA
-				pixmap.drawPixel( i, 0, (colors[i] << 8) | (colors[i] >>> 24) );
-			}
-			SmartTexture tx = new SmartTexture( pixmap );
+		GradientKey key = new GradientKey( colors );
+
+		SmartTexture tx = find( key );
+		if (tx == null) {
+			tx = new SmartTexture( load( key ) );
 
 			tx.filter( Texture.LINEAR, Texture.LINEAR );
 			tx.wrap( Texture.CLAMP, Texture.CLAMP );
 
-			all.put( key, tx );
-			return tx;
+			add( key, tx, true );
 		}
-		
+		return tx;
 	}
 
 	//texture is created at given size, but size is not enforced if it already exists
 	//texture contents are also not enforced, make sure you know the texture's state!
+	//The caller owns the contents, so these textures are never evicted
 	public synchronized static SmartTexture create( Object key, int width, int height ) {
 
-		if (all.containsKey( key )) {
-
-			return all.get( key );
+		SmartTexture tx = find( key );
+		if (tx == null) {
 
-		} else {
-
-			SmartTexture tx = new SmartTexture(new Pixmap( width, height, Pixmap.Format.RGBA8888 ));
+			tx = new SmartTexture(new Pixmap( width, height, Pixmap.Format.RGBA8888 ));
 
 			tx.filter( Texture.LINEAR, Texture.LINEAR );
 			tx.wrap( Texture.CLAMP, Texture.CLAMP );
 
-			all.put( key, tx );
+			add( key, tx, false );
+		}
+		return tx;
+	}
+	
+	//adds a texture the caller has made, the bitmap is disposed of if the key is already taken.
+	//The cache can't make these again, so they are never evicted
+	public synchronized static SmartTexture put( Object key, Pixmap bitmap ) {
 
-			return tx;
+		SmartTexture tx = all.get( key );
+		if (tx == null) {
+			tx = reclaim( key );
 		}
+		if (tx == null) {
+			tx = new SmartTexture( bitmap );
+			add( key, tx, false );
+		} else {
+			bitmap.dispose();
+		}
+		return tx;
 	}
 	
 	public synchronized static void remove( Object key ){
-		SmartTexture tx = all.get( key );
+		SmartTexture tx = evicted.remove( key );
+		if (tx != null){
+			tx.source = null;
+		}
+		tx = all.remove( key );
 		if (tx != null){
-			all.remove(key);
+			bytes -= bytes( tx );
+			tx.source = null;
 			tx.delete();
 		}
 	}
 
 	public synchronized static SmartTexture get( Object src ) {
-		
-		if (all.containsKey( src )) {
+
+		SmartTexture tx;
+		if (src instanceof SmartTexture) {
 			
-			return all.get( src );
+			return (SmartTexture)src;
 			
-		} else if (src instanceof SmartTexture) {
+		} else if ((tx = find( src )) != null) {
 			
-			return (SmartTexture)src;
+			return tx;
 			
 		} else {
 
-			SmartTexture tx = new SmartTexture( getBitmap( src ) );
-			all.put( src, tx );
+			tx = new SmartTexture( getBitmap( src ) );
+			//a pixmap key is the texture's own bitmap, which is gone once the texture is deleted
+			add( src, tx, src instanceof String );
 			return tx;
 		}
 		
@@ -129,10 +186,16 @@ public class TextureCache {
 	
 	public synchronized static void clear() {
 		
-		for (Texture txt : all.values()) {
+		for (SmartTexture txt : all.values()) {
+			txt.source = null;
 			txt.delete();
 		}
 		all.clear();
+		for (SmartTexture txt : evicted.values()) {
+			txt.source = null;
+		}
+		evicted.clear();
+		bytes = 0;
 		
 	}
 	
@@ -141,6 +204,139 @@ public class TextureCache {
 			tx.reload();
 		}
 	}
+
+	//a pinned texture is never evicted, every pin must be matched by an unpin
+	public synchronized static void pin( SmartTexture tx ) {
+		if (tx != null) tx.pins++;
+	}
+
+	public synchronized static void unpin( SmartTexture tx ) {
+		if (tx != null && tx.pins > 0) tx.pins--;
+	}
+
+	//the cache size in bytes that eviction brings it back under
+	public synchronized static void budget( long bytes ) {
+		budget = bytes;
+		trim( null );
+	}
+
+	public synchronized static long budget() {
+		return budget;
+	}
+
+	//bytes of pixel data held by cached textures
+	public synchronized static long bytes() {
+		return bytes;
+	}
+
+	public synchronized static int size() {
+		return all.size();
+	}
+
+	public synchronized static long hits() {
+		return hits;
+	}
+
+	public synchronized static long misses() {
+		return misses;
+	}
+
+	public synchronized static long evictions() {
+		return evictions;
+	}
+
+	public synchronized static void resetStats() {
+		hits = misses = evictions = 0;
+	}
+
+	private static SmartTexture find( Object key ) {
+		SmartTexture tx = all.get( key );
+		if (tx != null) {
+			hits++;
+			return tx;
+		} else {
+			misses++;
+			return reclaim( key );
+		}
+	}
+
+	//brings back an evicted texture rather than making a second one for the same key
+	private static SmartTexture reclaim( Object key ) {
+		SmartTexture tx = evicted.remove( key );
+		if (tx != null) {
+			tx.bitmap = load( key );
+			all.put( key, tx );
+			bytes += bytes( tx );
+			trim( tx );
+		}
+		return tx;
+	}
+
+	private static void add( Object key, SmartTexture tx, boolean reloadable ) {
+		if (reloadable && tx.bitmap != null) {
+			tx.source = key;
+		}
+		all.put( key, tx );
+		bytes += bytes( tx );
+		trim( tx );
+	}
+
+	//evicts least recently used textures until the cache is within budget, or nothing else can go.
+	//keep is a texture that was just requested, so it is about to be used
+	private static void trim( SmartTexture keep ) {
+		Iterator<SmartTexture> it = all.values().iterator();
+		while (bytes > budget && it.hasNext()) {
+			SmartTexture tx = it.next();
+			if (tx != keep && tx.pins == 0 && tx.source != null) {
+				it.remove();
+				bytes -= bytes( tx );
+				evictions++;
+				//keeps source, so the texture can still be restored if something is holding onto it
+				tx.delete();
+				evicted.put( tx.source, tx );
+			}
+		}
+	}
+
+	//called by an evicted texture which is still being used
+	synchronized static void restore( SmartTexture tx ) {
+		misses++;
+		evicted.remove( tx.source );
+		tx.bitmap = load( tx.source );
+		//the key is free, as requests for it get this texture back instead of a new one.
+		//this doesn't trim, which could just evict another texture that is still in use
+		all.put( tx.source, tx );
+		bytes += bytes( tx );
+	}
+
+	private static long bytes( SmartTexture tx ) {
+		return (long)tx.width * tx.height * BYTES_PER_PIXEL;
+	}
+
+	private static Pixmap load( Object key ) {
+		if (key instanceof SolidKey) {
+
+			Pixmap pixmap = new Pixmap( 1, 1, Pixmap.Format.RGBA8888 );
+			// convert from Noosa ARGB to libGdx RGBA
+			int color = ((SolidKey)key).color;
+			pixmap.setColor( (color << 8) | (color >>> 24) );
+			pixmap.fill();
+			return pixmap;
+
+		} else if (key instanceof GradientKey) {
+
+			int[] colors = ((GradientKey)key).colors;
+			Pixmap pixmap = new Pixmap( colors.length, 1, Pixmap.Format.RGBA8888);
+			for (int i=0; i < colors.length; i++) {
+				// convert from Noosa ARGB to libGdx RGBA
+				pixmap.drawPixel( i, 0, (colors[i] << 8) | (colors[i] >>> 24) );
+			}
+			return pixmap;
+
+		} else {
+			return getBitmap( key );
+		}
+	}
 	
 	public static Pixmap getBitmap( Object src ) {
 		
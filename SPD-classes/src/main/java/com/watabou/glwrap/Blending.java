@@ -22,6 +22,7 @@
 package com.watabou.glwrap;
 
 import com.badlogic.gdx.Gdx;
+import com.watabou.noosa.QuadBatch;
 
 public class Blending {
 	
@@ -31,20 +32,24 @@ public class Blending {
 	}
 	
 	public static void enable(){
+		QuadBatch.flush();
 		Gdx.gl.glEnable( Gdx.gl.GL_BLEND );
 	}
 	
 	public static void disable(){
+		QuadBatch.flush();
 		Gdx.gl.glDisable( Gdx.gl.GL_BLEND );
 	}
 	
 	//in this mode colors overwrite eachother, based on alpha value
 	public static void setNormalMode(){
+		QuadBatch.flush();
 		Gdx.gl.glBlendFunc( Gdx.gl.GL_SRC_ALPHA, Gdx.gl.GL_ONE_MINUS_SRC_ALPHA );
 	}
 	
 	//in this mode colors add to eachother, eventually reaching pure white
 	public static void setLightMode(){
+		QuadBatch.flush();
 		Gdx.gl.glBlendFunc( Gdx.gl.GL_SRC_ALPHA, Gdx.gl.GL_ONE );
 	}
 	
@@ -43,6 +43,14 @@ public class Texture {
 	
 	public boolean premultiplied = false;
 
+	//bytes sent to textures by every upload, and by the uploads of the last full frame
+	private static long uploadedBytes = 0;
+	private static long frameStart = 0;
+	private static long frameBytes = 0;
+
+	//reused for sub images which can't be read straight out of their pixmap
+	private static ByteBuffer region;
+
 	protected void generate(){
 		id = Gdx.gl.glGenTexture();
 	}
@@ -96,9 +104,61 @@ public class Texture {
 				pixmap.getGLType(),
 				pixmap.getPixels()
 		);
+		uploadedBytes += pixmap.getPixels().capacity();
 		
 		premultiplied = true;
 	}
+
+	//uploads one region of the pixmap into the same region of this texture,
+	//which must already hold an image of the pixmap's size and format
+	public void bitmap( Pixmap pixmap, int x, int y, int w, int h ) {
+		if (w <= 0 || h <= 0) return;
+
+		bind();
+
+		ByteBuffer pixels = pixmap.getPixels();
+		int bpp = pixels.capacity() / (pixmap.getWidth() * pixmap.getHeight());
+		int stride = pixmap.getWidth() * bpp;
+
+		ByteBuffer data;
+		if (x == 0 && w == pixmap.getWidth()) {
+			//whole rows are already contiguous
+			data = pixels.duplicate();
+			((Buffer)data).limit( (y + h) * stride );
+			((Buffer)data).position( y * stride );
+		} else {
+			int size = w * h * bpp;
+			if (region == null || region.capacity() < size) {
+				region = ByteBuffer.allocateDirect( size ).order( ByteOrder.nativeOrder() );
+			}
+			data = region;
+			((Buffer)data).clear();
+
+			ByteBuffer row = pixels.duplicate();
+			for (int r = 0; r < h; r++) {
+				int start = (y + r) * stride + x * bpp;
+				((Buffer)row).limit( start + w * bpp );
+				((Buffer)row).position( start );
+				data.put( row );
+			}
+			((Buffer)data).flip();
+		}
+
+		Gdx.gl.glPixelStorei( Gdx.gl.GL_UNPACK_ALIGNMENT, 1 );
+
+		Gdx.gl.glTexSubImage2D(
+				Gdx.gl.GL_TEXTURE_2D,
+				0,
+				x,
+				y,
+				w,
+				h,
+				pixmap.getGLFormat(),
+				pixmap.getGLType(),
+				data
+		);
+		uploadedBytes += w * h * bpp;
+	}
 	
 	public void pixels( int w, int h, int[] pixels ) {
 	
@@ -121,6 +181,7 @@ public class Texture {
 			Gdx.gl.GL_RGBA,
 			Gdx.gl.GL_UNSIGNED_BYTE,
 			imageBuffer );
+		uploadedBytes += w * h * 4;
 	}
 	
 	public void pixels( int w, int h, byte[] pixels ) {
@@ -145,6 +206,21 @@ public class Texture {
 			Gdx.gl.GL_ALPHA,
 			Gdx.gl.GL_UNSIGNED_BYTE,
 			imageBuffer );
+		uploadedBytes += w * h;
+	}
+
+	public static long uploadedBytes() {
+		return uploadedBytes;
+	}
+
+	//bytes uploaded during the last frame, as of the last endFrame call
+	public static long frameBytes() {
+		return frameBytes;
+	}
+
+	public static void endFrame() {
+		frameBytes = uploadedBytes - frameStart;
+		frameStart = uploadedBytes;
 	}
 	
 	public static Texture create( Pixmap pix ) {
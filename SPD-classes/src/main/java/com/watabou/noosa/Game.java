@@ -29,6 +29,7 @@ import com.badlogic.gdx.utils.TimeUtils;
 import com.watabou.glscripts.Script;
 import com.watabou.gltextures.TextureCache;
 import com.watabou.glwrap.Blending;
+import com.watabou.glwrap.Texture;
 import com.watabou.glwrap.VertexBuffer;
 import com.watabou.input.ControllerHandler;
 import com.watabou.input.InputHandler;
@@ -161,9 +162,12 @@ public class Game implements ApplicationListener {
 
 		NoosaScript.get().resetCamera();
 		NoosaScriptNoLighting.get().resetCamera();
+		QuadBatch.resetCamera();
 		Gdx.gl.glDisable(Gdx.gl.GL_SCISSOR_TEST);
 		Gdx.gl.glClear(Gdx.gl.GL_COLOR_BUFFER_BIT);
 		draw();
+		QuadBatch.flush();
+		Texture.endFrame();
 
 		Gdx.gl.glDisable( Gdx.gl.GL_SCISSOR_TEST );
 		
@@ -255,6 +259,7 @@ public class Game implements ApplicationListener {
 		}
 		//clear any leftover vertex buffers
 		VertexBuffer.clear();
+		QuadBatch.reset();
 		scene = requestedScene;
 		if (onChange != null) onChange.beforeCreate();
 		scene.create();
@@ -23,7 +23,11 @@ package com.watabou.noosa;
 
 import java.nio.Buffer;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.CRC32;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.watabou.gltextures.SmartTexture;
 import com.watabou.gltextures.TextureCache;
@@ -43,6 +47,16 @@ public class HexTileMap extends TileMap {
 	private float cellW;
 	private float cellH;
 
+	//version of the corner cutting below. Atlases baked by image_tools/bake_hex_tiles.py are
+	//only used if they were baked by the same version, bump both whenever the cutting changes
+	public static final int BAKE_VERSION = 1;
+
+	private static final String BAKE_DIR = "hex" + BAKE_VERSION + "/";
+	private static final String MANIFEST = BAKE_DIR + "manifest.txt";
+
+	//source path -> crc32 of the source the baked atlas was made from
+	private static HashMap<String, Long> baked;
+
 	public HexTileMap(Object tx, int SIZE, int HEX_WIDTH, int HEX_HEIGHT) {
 
 		super(tx, new TextureFilm( tx, SIZE, SIZE ) );
@@ -53,10 +67,64 @@ public class HexTileMap extends TileMap {
 			return;
 		}
 
-		Pixmap original = TextureCache.getBitmap( tx );
-
 		if (SIZE != 16)
-			throw new RuntimeException( "DEBUG ASSERT: OriginalSize should be 16x16" + SIZE + original.getHeight() + original.getWidth() + tx.toString() );
+			throw new RuntimeException( "DEBUG ASSERT: OriginalSize should be 16x16" + SIZE + tx.toString() );
+
+		SmartTexture hexagonal = atlas( tx, SIZE, HEX_WIDTH, HEX_HEIGHT );
+		TextureCache.pin( hexagonal );
+		TextureCache.unpin( texture );
+
+		this.texture = hexagonal;
+		this.tileSet = new TextureFilm( hexagonal, HEX_WIDTH, HEX_HEIGHT );
+
+		cellW = HEX_WIDTH;
+		cellH = HEX_HEIGHT;
+
+	}
+
+	//the hexagonal atlas is made once per source and shared through the texture cache.
+	//A baked copy is loaded as is, otherwise it is cut from the source here
+	public static synchronized SmartTexture atlas( Object tx, int SIZE, int HEX_WIDTH, int HEX_HEIGHT ) {
+
+		String key = BAKE_DIR + tx;
+		if (TextureCache.contains( key )) {
+			return TextureCache.get( key );
+		}
+
+		if (tx instanceof String && isBaked( (String)tx )) {
+			return TextureCache.get( key );
+		}
+
+		return TextureCache.put( key, cut( TextureCache.getBitmap( tx ), SIZE, HEX_WIDTH, HEX_HEIGHT ) );
+	}
+
+	private static boolean isBaked( String src ) {
+		if (baked == null) {
+			baked = new HashMap<>();
+			FileHandle manifest = Gdx.files.internal( MANIFEST );
+			if (manifest.exists()) {
+				for (String line : manifest.readString( "UTF-8" ).split( "\n" )) {
+					String[] entry = line.trim().split( " " );
+					if (entry.length == 2) {
+						baked.put( entry[0], Long.parseLong( entry[1] ) );
+					}
+				}
+			}
+		}
+
+		Long crc = baked.get( src );
+		if (crc == null || !Gdx.files.internal( BAKE_DIR + src ).exists()) {
+			return false;
+		}
+
+		//a baked atlas which is older than its source is ignored
+		CRC32 check = new CRC32();
+		check.update( Gdx.files.internal( src ).readBytes() );
+		return check.getValue() == crc;
+	}
+
+	// Each 16x16 tile becomes 18x16 and its corners are cut
+	private static Pixmap cut( Pixmap original, int SIZE, int HEX_WIDTH, int HEX_HEIGHT ) {
 
 		Pixmap hexagonal = new Pixmap(
 			original.getWidth() / SIZE * HEX_WIDTH,
@@ -103,14 +171,9 @@ public class HexTileMap extends TileMap {
 				  original.getPixel( i * SIZE      + 15, j * SIZE       + 8 ));
 			}
 
-		original.dispose(); // keep it for info cells?
-
-		this.texture = new SmartTexture( hexagonal );
-		this.tileSet = new TextureFilm( hexagonal, HEX_WIDTH, HEX_HEIGHT );
-
-		cellW = HEX_WIDTH;
-		cellH = HEX_HEIGHT;
+		original.dispose();
 
+		return hexagonal;
 	}
 
 	private synchronized void moveToUpdating(){
@@ -43,6 +43,8 @@ public class Image extends Visual {
 	protected VertexBuffer buffer;
 	
 	protected boolean dirty;
+
+	private Boolean batchable;
 	
 	public Image() {
 		super( 0, 0, 0, 0 );
@@ -67,7 +69,7 @@ public class Image extends Visual {
 	}
 	
 	public void texture( Object tx ) {
-		texture = tx instanceof SmartTexture ? (SmartTexture)tx : TextureCache.get( tx );
+		pin( tx instanceof SmartTexture ? (SmartTexture)tx : TextureCache.get( tx ) );
 		frame( new RectF( 0, 0, 1, 1 ) );
 	}
 	
@@ -90,7 +92,7 @@ public class Image extends Visual {
 	}
 
 	public void copy( Image other ) {
-		texture = other.texture;
+		pin( other.texture );
 		frame = new RectF( other.frame );
 		
 		width = other.width;
@@ -105,6 +107,13 @@ public class Image extends Visual {
 		ra = other.ra; ga = other.ga; ba = other.ba; aa = other.aa;
 	}
 	
+	//keeps the texture from being evicted from the cache for as long as this image shows it
+	private void pin( SmartTexture tx ) {
+		TextureCache.pin( tx );
+		TextureCache.unpin( texture );
+		texture = tx;
+	}
+
 	protected void updateFrame() {
 		
 		if (flipHorizontal) {
@@ -159,6 +168,13 @@ public class Image extends Visual {
 		
 		super.draw();
 
+		if (batched()) {
+			QuadBatch.add( texture, camera(), matrix, vertices,
+				rm, gm, bm, am,
+				ra, ga, ba, aa );
+			return;
+		}
+
 		if (dirty) {
 			((Buffer)verticesBuffer).position( 0 );
 			verticesBuffer.put( vertices );
@@ -188,10 +204,20 @@ public class Image extends Visual {
 		return NoosaScript.get();
 	}
 
+	//whether this image is drawn through the quad batch. Only images using the default script
+	//can be, which is checked on first draw
+	protected boolean batched(){
+		if (batchable == null) {
+			batchable = script().getClass() == NoosaScript.class;
+		}
+		return batchable && QuadBatch.enabled;
+	}
+
 	@Override
 	public void destroy() {
 		super.destroy();
 		if (buffer != null)
 			buffer.delete();
+		TextureCache.unpin( texture );
 	}
 }
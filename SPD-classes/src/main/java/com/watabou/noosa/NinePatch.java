@@ -70,6 +70,7 @@ public class NinePatch extends Visual {
 		super( 0, 0, 0, 0 );
 		
 		texture = TextureCache.get( tx );
+		TextureCache.pin( texture );
 		w = w == 0 ? texture.width : w;
 		h = h == 0 ? texture.height : h;
 		
@@ -233,5 +234,6 @@ public class NinePatch extends Visual {
 		super.destroy();
 		if (buffer != null)
 			buffer.delete();
+		TextureCache.unpin( texture );
 	}
 }
@@ -42,7 +42,12 @@ public class NoosaScript extends Script {
 	public Attribute aXY;
 	public Attribute aUV;
 	
+	//glDrawElements calls made by every script, including the quad batch
+	static long drawCalls = 0;
+
 	private Camera lastCamera;
+	//the scissor test is shared by every script, unlike the camera uniform
+	private static Camera scissorCamera;
 	
 	public NoosaScript() {
 
@@ -82,6 +87,7 @@ public class NoosaScript extends Script {
 
 		Quad.releaseIndices();
 		Gdx.gl20.glDrawElements( Gdx.gl20.GL_TRIANGLES, size, Gdx.gl20.GL_UNSIGNED_SHORT, indices );
+		drawCalls++;
 		Quad.bindIndices();
 	}
 
@@ -94,6 +100,7 @@ public class NoosaScript extends Script {
 		aUV.vertexPointer( 2, 4, vertices );
 		
 		Gdx.gl20.glDrawElements( Gdx.gl20.GL_TRIANGLES, Quad.SIZE, Gdx.gl20.GL_UNSIGNED_SHORT, 0 );
+		drawCalls++;
 	}
 
 	public void drawQuad( VertexBuffer buffer ) {
@@ -108,6 +115,7 @@ public class NoosaScript extends Script {
 		buffer.release();
 		
 		Gdx.gl20.glDrawElements( Gdx.gl20.GL_TRIANGLES, Quad.SIZE, Gdx.gl20.GL_UNSIGNED_SHORT, 0 );
+		drawCalls++;
 	}
 	
 	public void drawQuadSet( FloatBuffer vertices, int size ) {
@@ -123,6 +131,7 @@ public class NoosaScript extends Script {
 		aUV.vertexPointer( 2, 4, vertices );
 		
 		Gdx.gl20.glDrawElements( Gdx.gl20.GL_TRIANGLES, Quad.SIZE * size, Gdx.gl20.GL_UNSIGNED_SHORT, 0 );
+		drawCalls++;
 	}
 
 	public void drawQuadSet( VertexBuffer buffer, int length, int offset ){
@@ -141,6 +150,15 @@ public class NoosaScript extends Script {
 		buffer.release();
 		
 		Gdx.gl20.glDrawElements( Gdx.gl20.GL_TRIANGLES, Quad.SIZE * length, Gdx.gl20.GL_UNSIGNED_SHORT, Quad.SIZE * Short.SIZE/8 * offset );
+		drawCalls++;
+	}
+	
+	public static long drawCalls() {
+		return drawCalls;
+	}
+
+	public static void resetDrawCalls() {
+		drawCalls = 0;
 	}
 	
 	public void lighting( float rm, float gm, float bm, float am, float ra, float ga, float ba, float aa ) {
@@ -150,6 +168,7 @@ public class NoosaScript extends Script {
 	
 	public void resetCamera() {
 		lastCamera = null;
+		scissorCamera = null;
 	}
 	
 	public void camera( Camera camera ) {
@@ -159,6 +178,9 @@ public class NoosaScript extends Script {
 		if (camera != lastCamera && camera.matrix != null) {
 			lastCamera = camera;
 			uCamera.valueM4( camera.matrix );
+		}
+		if (camera != scissorCamera && camera.matrix != null) {
+			scissorCamera = camera;
 
 			if (!camera.fullScreen) {
 				Gdx.gl20.glEnable( Gdx.gl20.GL_SCISSOR_TEST );
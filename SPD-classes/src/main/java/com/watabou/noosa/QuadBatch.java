@@ -0,0 +1,274 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.watabou.noosa;
+
+import com.badlogic.gdx.Gdx;
+import com.watabou.glscripts.Script;
+import com.watabou.glwrap.Attribute;
+import com.watabou.glwrap.Quad;
+import com.watabou.glwrap.Texture;
+import com.watabou.glwrap.VertexBuffer;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+//Collects the quads of images into one vertex buffer, and draws all of them at once when
+//anything else is about to change the GL state.
+//Quads are moved into world space as they are added and carry their own color, so only
+//the texture and camera have to match for images to share a draw call.
+//Switching scripts or blending mode flushes the batch, which keeps the drawing order intact.
+public class QuadBatch {
+
+	private static final int MAX_QUADS = 2048;
+
+	//x, y, u, v, then the color multiplier and color offset
+	private static final int VERTEX_SIZE = 12;
+	private static final int QUAD_SIZE = 4 * VERTEX_SIZE;
+
+	public static boolean enabled = true;
+
+	private static FloatBuffer vertices;
+	private static VertexBuffer buffer;
+	private static final float[] quad = new float[QUAD_SIZE];
+
+	private static int count = 0;
+	private static Texture texture;
+	private static Camera camera;
+
+	private static long quads = 0;
+
+	public static void add( Texture texture, Camera camera, float[] matrix, float[] vertices,
+							float rm, float gm, float bm, float am,
+							float ra, float ga, float ba, float aa ) {
+
+		begin( texture, camera );
+
+		float m0 = matrix[0], m1 = matrix[1], m4 = matrix[4], m5 = matrix[5];
+		float m12 = matrix[12], m13 = matrix[13];
+
+		for (int v = 0; v < 4; v++) {
+			float x = vertices[v * 4];
+			float y = vertices[v * 4 + 1];
+
+			int i = v * VERTEX_SIZE;
+			quad[i]      = m0 * x + m4 * y + m12;
+			quad[i + 1]  = m1 * x + m5 * y + m13;
+			quad[i + 2]  = vertices[v * 4 + 2];
+			quad[i + 3]  = vertices[v * 4 + 3];
+			quad[i + 4]  = rm;
+			quad[i + 5]  = gm;
+			quad[i + 6]  = bm;
+			quad[i + 7]  = am;
+			quad[i + 8]  = ra;
+			quad[i + 9]  = ga;
+			quad[i + 10] = ba;
+			quad[i + 11] = aa;
+		}
+
+		put();
+	}
+
+	//an axis aligned rect in world coordinates, showing the whole texture
+	public static void add( Texture texture, Camera camera, float x1, float y1, float x2, float y2,
+							float rm, float gm, float bm, float am,
+							float ra, float ga, float ba, float aa ) {
+
+		begin( texture, camera );
+
+		corner( 0, x1, y1, 0, 0 );
+		corner( 1, x2, y1, 1, 0 );
+		corner( 2, x2, y2, 1, 1 );
+		corner( 3, x1, y2, 0, 1 );
+
+		for (int v = 0; v < 4; v++) {
+			int i = v * VERTEX_SIZE;
+			quad[i + 4]  = rm;
+			quad[i + 5]  = gm;
+			quad[i + 6]  = bm;
+			quad[i + 7]  = am;
+			quad[i + 8]  = ra;
+			quad[i + 9]  = ga;
+			quad[i + 10] = ba;
+			quad[i + 11] = aa;
+		}
+
+		put();
+	}
+
+	private static void corner( int index, float x, float y, float u, float v ) {
+		int i = index * VERTEX_SIZE;
+		quad[i]     = x;
+		quad[i + 1] = y;
+		quad[i + 2] = u;
+		quad[i + 3] = v;
+	}
+
+	private static void begin( Texture texture, Camera camera ) {
+		if (count > 0 && (count == MAX_QUADS || texture != QuadBatch.texture || camera != QuadBatch.camera)) {
+			flush();
+		}
+
+		if (count == 0) {
+			//while anything is batched the batch script stays in use,
+			//so any other script being used first flushes the batch
+			Script.use( BatchScript.class );
+			QuadBatch.texture = texture;
+			QuadBatch.camera = camera;
+		}
+	}
+
+	private static void put() {
+		if (QuadBatch.vertices == null) {
+			QuadBatch.vertices = ByteBuffer.
+					allocateDirect( MAX_QUADS * QUAD_SIZE * Float.SIZE / 8 ).
+					order( ByteOrder.nativeOrder() ).
+					asFloatBuffer();
+		}
+		((Buffer)QuadBatch.vertices).position( count * QUAD_SIZE );
+		QuadBatch.vertices.put( quad );
+
+		count++;
+		quads++;
+	}
+
+	public static void flush() {
+		if (count == 0) {
+			return;
+		}
+
+		int size = count;
+		count = 0;
+
+		BatchScript script = Script.use( BatchScript.class );
+
+		if (buffer == null) {
+			buffer = new VertexBuffer( vertices );
+		} else {
+			buffer.updateVertices( vertices, 0, size * QUAD_SIZE );
+		}
+		buffer.updateGLData();
+
+		texture.bind();
+		script.camera( camera );
+
+		buffer.bind();
+		script.aXY.vertexBuffer( 2, VERTEX_SIZE, 0 );
+		script.aUV.vertexBuffer( 2, VERTEX_SIZE, 2 );
+		script.aColorM.enable();
+		script.aColorM.vertexBuffer( 4, VERTEX_SIZE, 4 );
+		script.aColorA.enable();
+		script.aColorA.vertexBuffer( 4, VERTEX_SIZE, 8 );
+		buffer.release();
+
+		Gdx.gl20.glDrawElements( Gdx.gl20.GL_TRIANGLES, Quad.SIZE * size, Gdx.gl20.GL_UNSIGNED_SHORT, 0 );
+		NoosaScript.drawCalls++;
+
+		//the other scripts don't feed these
+		script.aColorM.disable();
+		script.aColorA.disable();
+
+		texture = null;
+		camera = null;
+	}
+
+	//drops anything batched, for when the scripts were deleted
+	public static void discard() {
+		count = 0;
+		texture = null;
+		camera = null;
+	}
+
+	//also drops the vertex buffer, for after all vertex buffers were deleted
+	public static void reset() {
+		discard();
+		buffer = null;
+	}
+
+	public static void resetCamera() {
+		Script.use( BatchScript.class ).resetCamera();
+	}
+
+	//quads drawn through the batch, NoosaScript.drawCalls() counts the draw calls they took
+	public static long quads() {
+		return quads;
+	}
+
+	public static void resetQuads() {
+		quads = 0;
+	}
+
+	public static class BatchScript extends NoosaScript {
+
+		public Attribute aColorM;
+		public Attribute aColorA;
+
+		public BatchScript() {
+			super();
+			aColorM = attribute( "aColorM" );
+			aColorA = attribute( "aColorA" );
+		}
+
+		@Override
+		protected String shader() {
+			return SHADER;
+		}
+
+		private static final String SHADER =
+
+			//vertex shader, positions are already in world space
+			"uniform mat4 uCamera;\n" +
+			"attribute vec4 aXYZW;\n" +
+			"attribute vec2 aUV;\n" +
+			"attribute vec4 aColorM;\n" +
+			"attribute vec4 aColorA;\n" +
+			"varying vec2 vUV;\n" +
+			"varying vec4 vColorM;\n" +
+			"varying vec4 vColorA;\n" +
+			"void main() {\n" +
+			"  gl_Position = uCamera * aXYZW;\n" +
+			"  vUV = aUV;\n" +
+			"  vColorM = aColorM;\n" +
+			"  vColorA = aColorA;\n" +
+			"}\n" +
+
+			//this symbol separates the vertex and fragment shaders (see Script.compile)
+			"//\n" +
+
+			//fragment shader
+			//preprocessor directives let us define precision on GLES platforms, and ignore it elsewhere
+			"#ifdef GL_ES\n" +
+			"  precision mediump float;\n" +
+			"#endif\n" +
+			"varying vec2 vUV;\n" +
+			"varying vec4 vColorM;\n" +
+			"varying vec4 vColorA;\n" +
+			"uniform sampler2D uTex;\n" +
+			"void main() {\n" +
+			"  gl_FragColor = texture2D( uTex, vUV ) * vColorM + vColorA;\n" +
+			"}\n";
+	}
+}
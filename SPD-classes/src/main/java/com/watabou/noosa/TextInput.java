@@ -243,6 +243,7 @@ public class TextInput extends Component {
 	@Override
 	public void draw() {
 		super.draw();
+		QuadBatch.flush();
 		Quad.releaseIndices();
 		Script.unuse();
 		Texture.clear();
@@ -58,6 +58,7 @@ public class TileMap extends Visual {
 		super( 0, 0, 0, 0 );
 
 		this.texture = TextureCache.get( tx );
+		TextureCache.pin( texture );
 		this.tileSet = tileSet;
 
 		RectF r = tileSet.get( 0 );
@@ -114,6 +115,7 @@ public class TileMap extends Visual {
 		super.destroy();
 		if (buffer != null)
 			buffer.delete();
+		TextureCache.unpin( texture );
 	}
 
 	protected boolean needsRender(int pos){
@@ -52,6 +52,16 @@ public class Emitter extends Group {
 	protected float time;
 	
 	protected Factory factory;
+
+	//pixel particles which don't need to be gizmos, see Particles
+	private Particles particles;
+
+	public Particles particles() {
+		if (particles == null) {
+			particles = new Particles();
+		}
+		return particles;
+	}
 	
 	public void pos( float x, float y ) {
 		pos( x, y, 0, 0 );
@@ -129,9 +139,13 @@ public class Emitter extends Group {
 					break;
 				}
 			}
-		} else if (started && autoKill && countLiving() == 0) {
+		} else if (started && autoKill && livingParticles() == 0 && countLiving() == 0) {
 			kill();
 		}
+
+		if (particles != null) {
+			particles.update( Game.elapsed );
+		}
 		
 		super.update();
 	}
@@ -143,9 +157,30 @@ public class Emitter extends Group {
 		visible = true;
 		fillTarget = true;
 		autoKill = true;
+		if (particles != null) {
+			particles.clear();
+		}
 		super.revive();
 	}
 
+	@Override
+	public synchronized void clear() {
+		if (particles != null) {
+			particles.clear();
+		}
+		super.clear();
+	}
+
+	@Override
+	public synchronized void destroy() {
+		particles = null;
+		super.destroy();
+	}
+
+	private int livingParticles() {
+		return particles == null ? 0 : particles.count;
+	}
+
 	protected void emit( int index ) {
 		if (target == null) {
 			factory.emit(
@@ -174,10 +209,17 @@ public class Emitter extends Group {
 	public void draw() {
 		if (lightMode) {
 			Blending.setLightMode();
-			super.draw();
+			drawParticles();
 			Blending.setNormalMode();
 		} else {
-			super.draw();
+			drawParticles();
+		}
+	}
+
+	private void drawParticles() {
+		super.draw();
+		if (particles != null) {
+			particles.draw( camera() );
 		}
 	}
 	
@@ -0,0 +1,188 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.watabou.noosa.particles;
+
+import com.watabou.gltextures.SmartTexture;
+import com.watabou.gltextures.TextureCache;
+import com.watabou.noosa.Camera;
+import com.watabou.noosa.QuadBatch;
+
+import java.util.Arrays;
+
+//Pixel particles of one emitter, stored as arrays instead of one PixelParticle gizmo each.
+//They are moved and aged in one loop, and drawn straight into the quad batch.
+//Living particles are always the first count entries, a dead one is replaced by the last.
+public class Particles {
+
+	//what a particle does as it ages, shared by every particle of the same kind
+	public static abstract class Kind {
+
+		//called for each living particle every frame, after it has moved.
+		//p is the fraction of its lifespan left, going from 1 to 0
+		public abstract void animate( Particles particles, int i, float p );
+	}
+
+	public int count = 0;
+
+	public Kind[] kind;
+
+	public float[] x;
+	public float[] y;
+	public float[] speedX;
+	public float[] speedY;
+	public float[] accX;
+	public float[] accY;
+
+	public float[] left;
+	public float[] lifespan;
+
+	//size is what is drawn, baseSize is what it was spawned with
+	public float[] size;
+	public float[] baseSize;
+
+	public int[] color;
+	public float[] am;
+
+	public Particles() {
+		allocate( 32 );
+	}
+
+	private void allocate( int capacity ) {
+		kind     = kind == null ? new Kind[capacity] : Arrays.copyOf( kind, capacity );
+		x        = grow( x, capacity );
+		y        = grow( y, capacity );
+		speedX   = grow( speedX, capacity );
+		speedY   = grow( speedY, capacity );
+		accX     = grow( accX, capacity );
+		accY     = grow( accY, capacity );
+		left     = grow( left, capacity );
+		lifespan = grow( lifespan, capacity );
+		size     = grow( size, capacity );
+		baseSize = grow( baseSize, capacity );
+		color    = color == null ? new int[capacity] : Arrays.copyOf( color, capacity );
+		am       = grow( am, capacity );
+	}
+
+	private static float[] grow( float[] array, int capacity ) {
+		return array == null ? new float[capacity] : Arrays.copyOf( array, capacity );
+	}
+
+	//adds a motionless, fully opaque particle and returns its index, for setting anything else
+	public int add( Kind kind, float x, float y, int color, float size, float lifespan ) {
+		if (count == this.x.length) {
+			allocate( count * 2 );
+		}
+
+		int i = count++;
+		this.kind[i] = kind;
+		this.x[i] = x;
+		this.y[i] = y;
+		speedX[i] = speedY[i] = 0;
+		accX[i] = accY[i] = 0;
+		this.left[i] = this.lifespan[i] = lifespan;
+		this.size[i] = baseSize[i] = size;
+		this.color[i] = color;
+		am[i] = 1;
+		return i;
+	}
+
+	//the same as PointF.polar, for a particle's speed
+	public void polar( int i, float angle, float length ) {
+		speedX[i] = length * (float)Math.cos( angle );
+		speedY[i] = length * (float)Math.sin( angle );
+	}
+
+	public void clear() {
+		Arrays.fill( kind, 0, count, null );
+		count = 0;
+	}
+
+	public void update( float elapsed ) {
+		for (int i = 0; i < count; i++) {
+
+			speedX[i] += accX[i] * elapsed;
+			x[i] += speedX[i] * elapsed;
+			speedY[i] += accY[i] * elapsed;
+			y[i] += speedY[i] * elapsed;
+
+			if ((left[i] -= elapsed) <= 0) {
+				remove( i-- );
+				continue;
+			}
+
+			kind[i].animate( this, i, left[i] / lifespan[i] );
+		}
+	}
+
+	private void remove( int i ) {
+		int last = --count;
+		if (i != last) {
+			kind[i] = kind[last];
+			x[i] = x[last];
+			y[i] = y[last];
+			speedX[i] = speedX[last];
+			speedY[i] = speedY[last];
+			accX[i] = accX[last];
+			accY[i] = accY[last];
+			left[i] = left[last];
+			lifespan[i] = lifespan[last];
+			size[i] = size[last];
+			baseSize[i] = baseSize[last];
+			color[i] = color[last];
+			am[i] = am[last];
+		}
+		kind[last] = null;
+	}
+
+	public void draw( Camera camera ) {
+		//the same as a PixelParticle, which isn't visible without a camera
+		if (count == 0 || camera == null) {
+			return;
+		}
+
+		SmartTexture texture = TextureCache.createSolid( 0xFFFFFFFF );
+
+		float minX = camera.scroll.x, maxX = camera.scroll.x + camera.width;
+		float minY = camera.scroll.y, maxY = camera.scroll.y + camera.height;
+
+		for (int i = 0; i < count; i++) {
+			//a 1x1 pixel scaled around its center
+			float half = size[i] * 0.5f;
+			float x1 = x[i] + 0.5f - half;
+			float y1 = y[i] + 0.5f - half;
+			float x2 = x[i] + 0.5f + half;
+			float y2 = y[i] + 0.5f + half;
+
+			if (x1 > maxX || x2 < minX || y1 > maxY || y2 < minY) {
+				continue;
+			}
+
+			int c = color[i];
+			QuadBatch.add( texture, camera, x1, y1, x2, y2,
+					0, 0, 0, am[i],
+					((c >> 16) & 0xFF) / 255f, ((c >> 8) & 0xFF) / 255f, (c & 0xFF) / 255f, 0 );
+		}
+	}
+}
@@ -0,0 +1,405 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.watabou.utils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+//Binary encoding of the JSON tree behind a bundle, streamed value by value.
+//Every string (keys, class names, enum names) is written once and referenced by index afterward,
+//int arrays are varint packed or run length encoded, and boolean arrays are written as bitsets.
+class BinaryBundle {
+
+	//not a valid first byte for JSON text, so both formats can be told apart from one byte
+	static final int MAGIC = 0xB5;
+
+	static final int VERSION = 1;
+
+	private static final int NULL       = 0;
+	private static final int FALSE      = 1;
+	private static final int TRUE       = 2;
+	private static final int INT        = 3;
+	private static final int LONG       = 4;
+	private static final int FLOAT      = 5;
+	private static final int DOUBLE     = 6;
+	private static final int STRING     = 7;
+	private static final int OBJECT     = 8;
+	private static final int ARRAY      = 9;
+	private static final int INT_ARRAY  = 10;
+	private static final int INT_RUNS   = 11;
+	private static final int BOOL_ARRAY = 12;
+
+	private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
+	// writing
+
+	static class Writer {
+
+		private final DataOutputStream out;
+		private final HashMap<String, Integer> strings = new HashMap<>();
+
+		Writer( OutputStream stream ){
+			out = new DataOutputStream( stream );
+		}
+
+		void write( JSONObject root ) throws IOException {
+			out.write( MAGIC );
+			writeVarInt( VERSION );
+			writeValue( root );
+			out.flush();
+		}
+
+		private void writeValue( Object value ) throws IOException {
+			if (value == null || value == JSONObject.NULL) {
+				out.write( NULL );
+			} else if (value instanceof Boolean) {
+				out.write( (Boolean)value ? TRUE : FALSE );
+			} else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+				out.write( INT );
+				writeVarInt( zigzag( ((Number)value).intValue() ) );
+			} else if (value instanceof Long) {
+				out.write( LONG );
+				writeVarLong( zigzag( (Long)value ) );
+			} else if (value instanceof BigInteger && ((BigInteger)value).bitLength() < 64) {
+				out.write( LONG );
+				writeVarLong( zigzag( ((BigInteger)value).longValue() ) );
+			} else if (value instanceof Number && !(value instanceof BigInteger)) {
+				//bundles store floats, which org.json widens to double. Those fit back in 4 bytes
+				double d = ((Number)value).doubleValue();
+				if ((double)(float)d == d) {
+					out.write( FLOAT );
+					out.writeInt( Float.floatToIntBits( (float)d ) );
+				} else {
+					out.write( DOUBLE );
+					out.writeLong( Double.doubleToLongBits( d ) );
+				}
+			} else if (value instanceof JSONObject) {
+				writeObject( (JSONObject)value );
+			} else if (value instanceof JSONArray) {
+				writeArray( (JSONArray)value );
+			} else if (value instanceof Class) {
+				out.write( STRING );
+				writeString( ((Class<?>)value).getName() );
+			} else {
+				out.write( STRING );
+				writeString( value.toString() );
+			}
+		}
+
+		private void writeObject( JSONObject object ) throws IOException {
+			out.write( OBJECT );
+			writeVarInt( object.length() );
+			//JSONObject.keyset() doesn't exist on Android/iOS
+			Iterator<String> keys = object.keys();
+			while (keys.hasNext()) {
+				String key = keys.next();
+				writeString( key );
+				writeValue( object.opt( key ) );
+			}
+		}
+
+		private void writeArray( JSONArray array ) throws IOException {
+			int length = array.length();
+
+			boolean ints = length > 0, bools = length > 0;
+			for (int i = 0; i < length && (ints || bools); i++) {
+				Object o = array.opt( i );
+				ints = ints && o instanceof Integer;
+				bools = bools && o instanceof Boolean;
+			}
+
+			if (ints) {
+				int[] values = new int[length];
+				for (int i = 0; i < length; i++) {
+					values[i] = (Integer)array.opt( i );
+				}
+				writeIntArray( values );
+			} else if (bools) {
+				out.write( BOOL_ARRAY );
+				writeVarInt( length );
+				int bits = 0;
+				for (int i = 0; i < length; i++) {
+					if ((Boolean)array.opt( i )) bits |= 1 << (i & 7);
+					if ((i & 7) == 7 || i == length - 1) {
+						out.write( bits );
+						bits = 0;
+					}
+				}
+			} else {
+				out.write( ARRAY );
+				writeVarInt( length );
+				for (int i = 0; i < length; i++) {
+					writeValue( array.opt( i ) );
+				}
+			}
+		}
+
+		//level maps and blob volumes are mostly long runs of the same value,
+		//so whichever of the two encodings is smaller is picked per array
+		private void writeIntArray( int[] values ) throws IOException {
+			int packedSize = 0, runsSize = 0;
+			for (int i = 0; i < values.length; ) {
+				int start = i;
+				int value = zigzag( values[i] );
+				while (i < values.length && values[i] == values[start]) {
+					packedSize += varIntSize( value );
+					i++;
+				}
+				runsSize += varIntSize( i - start ) + varIntSize( value );
+			}
+
+			if (runsSize < packedSize) {
+				out.write( INT_RUNS );
+				writeVarInt( values.length );
+				for (int i = 0; i < values.length; ) {
+					int start = i;
+					while (i < values.length && values[i] == values[start]) i++;
+					writeVarInt( i - start );
+					writeVarInt( zigzag( values[start] ) );
+				}
+			} else {
+				out.write( INT_ARRAY );
+				writeVarInt( values.length );
+				for (int value : values) {
+					writeVarInt( zigzag( value ) );
+				}
+			}
+		}
+
+		//first use writes the string itself, later uses only its index in the table
+		private void writeString( String string ) throws IOException {
+			Integer index = strings.get( string );
+			if (index != null) {
+				writeVarInt( index + 1 );
+			} else {
+				strings.put( string, strings.size() );
+				byte[] bytes = string.getBytes( UTF_8 );
+				writeVarInt( 0 );
+				writeVarInt( bytes.length );
+				out.write( bytes );
+			}
+		}
+
+		private void writeVarInt( int value ) throws IOException {
+			while ((value & ~0x7F) != 0) {
+				out.write( (value & 0x7F) | 0x80 );
+				value >>>= 7;
+			}
+			out.write( value );
+		}
+
+		private void writeVarLong( long value ) throws IOException {
+			while ((value & ~0x7FL) != 0) {
+				out.write( (int)(value & 0x7F) | 0x80 );
+				value >>>= 7;
+			}
+			out.write( (int)value );
+		}
+	}
+
+	// reading
+
+	static class Reader {
+
+		private final DataInputStream in;
+		private final ArrayList<String> strings = new ArrayList<>();
+
+		Reader( InputStream stream ){
+			in = new DataInputStream( stream );
+		}
+
+		Object read() throws IOException, JSONException {
+			if (in.readUnsignedByte() != MAGIC) {
+				throw new IOException( "not a binary bundle" );
+			}
+			int version = readVarInt();
+			if (version > VERSION) {
+				throw new IOException( "unsupported bundle version: " + version );
+			}
+			return readValue();
+		}
+
+		private Object readValue() throws IOException, JSONException {
+			int tag = in.readUnsignedByte();
+			switch (tag) {
+				case NULL:
+					return JSONObject.NULL;
+				case FALSE:
+					return Boolean.FALSE;
+				case TRUE:
+					return Boolean.TRUE;
+				case INT:
+					return unzigzag( readVarInt() );
+				case LONG:
+					return unzigzag( readVarLong() );
+				case FLOAT:
+					return (double)Float.intBitsToFloat( in.readInt() );
+				case DOUBLE:
+					return Double.longBitsToDouble( in.readLong() );
+				case STRING:
+					return readString();
+				case OBJECT:
+					return readObject();
+				case ARRAY:
+					return readArray();
+				case INT_ARRAY:
+					return readIntArray();
+				case INT_RUNS:
+					return readIntRuns();
+				case BOOL_ARRAY:
+					return readBoolArray();
+				default:
+					throw new IOException( "unknown bundle tag: " + tag );
+			}
+		}
+
+		private JSONObject readObject() throws IOException, JSONException {
+			int size = readVarInt();
+			JSONObject object = new JSONObject();
+			for (int i = 0; i < size; i++) {
+				String key = readString();
+				object.put( key, readValue() );
+			}
+			return object;
+		}
+
+		private JSONArray readArray() throws IOException, JSONException {
+			int length = readVarInt();
+			JSONArray array = new JSONArray();
+			for (int i = 0; i < length; i++) {
+				array.put( readValue() );
+			}
+			return array;
+		}
+
+		private JSONArray readIntArray() throws IOException {
+			int length = readVarInt();
+			JSONArray array = new JSONArray();
+			for (int i = 0; i < length; i++) {
+				array.put( unzigzag( readVarInt() ) );
+			}
+			return array;
+		}
+
+		private JSONArray readIntRuns() throws IOException {
+			int length = readVarInt();
+			JSONArray array = new JSONArray();
+			while (array.length() < length) {
+				int run = readVarInt();
+				int value = unzigzag( readVarInt() );
+				if (run <= 0 || array.length() + run > length) {
+					throw new IOException( "malformed int array" );
+				}
+				for (int i = 0; i < run; i++) {
+					array.put( value );
+				}
+			}
+			return array;
+		}
+
+		private JSONArray readBoolArray() throws IOException {
+			int length = readVarInt();
+			JSONArray array = new JSONArray();
+			int bits = 0;
+			for (int i = 0; i < length; i++) {
+				if ((i & 7) == 0) bits = in.readUnsignedByte();
+				array.put( (bits & (1 << (i & 7))) != 0 );
+			}
+			return array;
+		}
+
+		private String readString() throws IOException {
+			int index = readVarInt();
+			if (index != 0) {
+				if (index > strings.size()) {
+					throw new IOException( "bad string reference: " + index );
+				}
+				return strings.get( index - 1 );
+			}
+			byte[] bytes = new byte[readVarInt()];
+			in.readFully( bytes );
+			String string = new String( bytes, UTF_8 );
+			strings.add( string );
+			return string;
+		}
+
+		private int readVarInt() throws IOException {
+			int result = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				int b = in.readUnsignedByte();
+				result |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) return result;
+			}
+			throw new IOException( "malformed varint" );
+		}
+
+		private long readVarLong() throws IOException {
+			long result = 0;
+			for (int shift = 0; shift < 70; shift += 7) {
+				int b = in.readUnsignedByte();
+				result |= (long)(b & 0x7F) << shift;
+				if ((b & 0x80) == 0) return result;
+			}
+			throw new IOException( "malformed varint" );
+		}
+	}
+
+	private static int zigzag( int value ){
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static long zigzag( long value ){
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static int unzigzag( int value ){
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static long unzigzag( long value ){
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static int varIntSize( int value ){
+		int size = 1;
+		while ((value & ~0x7F) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+}
@@ -29,6 +29,7 @@ import org.json.JSONObject;
 import org.json.JSONTokener;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
@@ -479,8 +480,10 @@ public class Bundle {
 		}
 	}
 
-	//useful to turn this off for save data debugging.
+	//useful to turn these off for save data debugging.
+	//JSON data is always readable, so old saves still load when binary is on
 	private static final boolean compressByDefault = true;
+	private static final boolean binaryByDefault = true;
 
 	private static final int GZIP_BUFFER = 1024*4; //4 kb
 
@@ -502,6 +505,22 @@ public class Bundle {
 				stream = new GZIPInputStream( stream, GZIP_BUFFER );
 			}
 
+			//determines if the (uncompressed) data is binary or JSON text
+			stream = new BufferedInputStream( stream, GZIP_BUFFER );
+			stream.mark( 1 );
+			int first = stream.read();
+			stream.reset();
+
+			if (first == BinaryBundle.MAGIC){
+				Object data = new BinaryBundle.Reader( stream ).read();
+				stream.close();
+
+				if (!(data instanceof JSONObject)){
+					throw new IOException("Malformed binary bundle");
+				}
+				return new Bundle( (JSONObject) data );
+			}
+
 			//JSONTokenizer only has a string-based constructor on Android/iOS
 			BufferedReader reader = new BufferedReader( new InputStreamReader( stream ));
 			StringBuilder jsonBuilder = new StringBuilder();
@@ -537,7 +556,19 @@ public class Bundle {
 	}
 
 	public static boolean write( Bundle bundle, OutputStream stream, boolean compressed ) {
+		return write(bundle, stream, compressed, binaryByDefault);
+	}
+
+	public static boolean write( Bundle bundle, OutputStream stream, boolean compressed, boolean binary ) {
 		try {
+			if (binary){
+				if (compressed) stream = new GZIPOutputStream( stream, GZIP_BUFFER );
+				OutputStream out = new BufferedOutputStream( stream, GZIP_BUFFER );
+				new BinaryBundle.Writer( out ).write( bundle.data );
+				out.close();
+				return true;
+			}
+
 			BufferedWriter writer;
 			if (compressed) writer = new BufferedWriter( new OutputStreamWriter( new GZIPOutputStream(stream, GZIP_BUFFER ) ) );
 			else writer = new BufferedWriter( new OutputStreamWriter( stream ) );
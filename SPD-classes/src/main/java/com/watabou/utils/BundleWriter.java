@@ -0,0 +1,158 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.watabou.utils;
+
+import com.watabou.noosa.Game;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Writes bundles to files on a background thread.
+//A bundle is already a detached copy of the state it was built from, so the caller only pays for
+//building it, while encoding, compression and the file replace happen here.
+//Pending writes to the same file are coalesced, only the most recent bundle is written.
+class BundleWriter {
+
+	//the caller waits once this many different files are pending
+	private static final int MAX_PENDING = 4;
+
+	private static class Pending {
+		Bundle bundle;
+		Callback onFailure;
+
+		Pending( Bundle bundle, Callback onFailure ){
+			this.bundle = bundle;
+			this.onFailure = onFailure;
+		}
+	}
+
+	private static final Object lock = new Object();
+
+	private static final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+	private static String writing = null;
+
+	private static Thread thread = null;
+
+	static void enqueue( String fileName, Bundle bundle, Callback onFailure ){
+		synchronized (lock) {
+			Pending existing = pending.get( fileName );
+			if (existing != null) {
+				existing.bundle = bundle;
+				existing.onFailure = onFailure;
+				return;
+			}
+
+			while (pending.size() >= MAX_PENDING && !isWriterThread()) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+
+			pending.put( fileName, new Pending( bundle, onFailure ) );
+
+			if (thread == null) {
+				thread = new Thread( new Runnable() {
+					@Override
+					public void run() {
+						BundleWriter.run();
+					}
+				}, "Bundle Writer" );
+				thread.setDaemon( true );
+				thread.start();
+			}
+			lock.notifyAll();
+		}
+	}
+
+	//waits until everything queued so far is on disk
+	static void flush(){
+		flush( null );
+	}
+
+	//waits until the given file has no queued or in progress write, or all files if null
+	static void flush( String fileName ){
+		if (isWriterThread()) return;
+
+		synchronized (lock) {
+			while (fileName == null ? (!pending.isEmpty() || writing != null)
+					: (pending.containsKey( fileName ) || fileName.equals( writing ))) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private static boolean isWriterThread(){
+		return Thread.currentThread() == thread;
+	}
+
+	private static void run(){
+		while (true) {
+			String fileName;
+			Pending next;
+
+			synchronized (lock) {
+				while (pending.isEmpty()) {
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						//keep going, queued saves must not be dropped
+					}
+				}
+
+				Iterator<Map.Entry<String, Pending>> it = pending.entrySet().iterator();
+				Map.Entry<String, Pending> entry = it.next();
+				it.remove();
+				fileName = entry.getKey();
+				next = entry.getValue();
+				writing = fileName;
+				lock.notifyAll();
+			}
+
+			try {
+				FileUtils.bundleToFile( fileName, next.bundle );
+			} catch (Exception e) {
+				Game.reportException( e );
+				if (next.onFailure != null) {
+					Game.runOnRenderThread( next.onFailure );
+				}
+			}
+
+			synchronized (lock) {
+				writing = null;
+				lock.notifyAll();
+			}
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.watabou.utils;
+
+import java.util.Arrays;
+
+//A map of one flag per cell, packed 64 cells to a long.
+//Combining maps works a word at a time, fromArray/toArray convert to and from the boolean[] maps
+public class CellBitSet {
+
+	private long[] words;
+	private int length;
+
+	public CellBitSet( int length ){
+		this.length = length;
+		words = new long[(length + 63) >>> 6];
+	}
+
+	public int length(){
+		return length;
+	}
+
+	public boolean get( int cell ){
+		return (words[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	public void set( int cell ){
+		words[cell >>> 6] |= 1L << cell;
+	}
+
+	public void clear( int cell ){
+		words[cell >>> 6] &= ~(1L << cell);
+	}
+
+	public void set( int cell, boolean value ){
+		if (value) set( cell );
+		else       clear( cell );
+	}
+
+	public CellBitSet clear(){
+		Arrays.fill( words, 0 );
+		return this;
+	}
+
+	public CellBitSet set( CellBitSet other ){
+		System.arraycopy( other.words, 0, words, 0, words.length );
+		return this;
+	}
+
+	public CellBitSet or( CellBitSet other ){
+		for (int i = 0; i < words.length; i++){
+			words[i] |= other.words[i];
+		}
+		return this;
+	}
+
+	public CellBitSet and( CellBitSet other ){
+		for (int i = 0; i < words.length; i++){
+			words[i] &= other.words[i];
+		}
+		return this;
+	}
+
+	public CellBitSet andNot( CellBitSet other ){
+		for (int i = 0; i < words.length; i++){
+			words[i] &= ~other.words[i];
+		}
+		return this;
+	}
+
+	//returns the first set cell at or after from, or -1 if there is none
+	public int nextSetBit( int from ){
+		if (from >= length) return -1;
+		int w = from >>> 6;
+		long word = words[w] & (-1L << from);
+		while (true){
+			if (word != 0){
+				int cell = (w << 6) + Long.numberOfTrailingZeros( word );
+				return cell < length ? cell : -1;
+			}
+			if (++w == words.length) return -1;
+			word = words[w];
+		}
+	}
+
+	public int cardinality(){
+		int count = 0;
+		for (long word : words){
+			count += Long.bitCount( word );
+		}
+		return count;
+	}
+
+	public CellBitSet fromArray( boolean[] values ){
+		int cell = 0;
+		for (int w = 0; w < words.length; w++){
+			long word = 0;
+			int end = Math.min( cell + 64, length );
+			for (int bit = 0; cell < end; bit++, cell++){
+				if (values[cell]) word |= 1L << bit;
+			}
+			words[w] = word;
+		}
+		return this;
+	}
+
+	public boolean[] toArray( boolean[] result ){
+		if (result == null) {
+			result = new boolean[length];
+		}
+
+		int cell = 0;
+		for (int w = 0; w < words.length; w++){
+			long word = words[w];
+			int end = Math.min( cell + 64, length );
+			//level maps are mostly long runs of the same value
+			if (word == 0 || word == -1L){
+				Arrays.fill( result, cell, end, word != 0 );
+				cell = end;
+			} else {
+				for (; cell < end; cell++, word >>>= 1){
+					result[cell] = (word & 1) != 0;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -77,6 +77,7 @@ public class FileUtils {
 	}
 
 	public static boolean cleanTempFiles( String dirName ){
+		BundleWriter.flush();
 		FileHandle dir = getFileHandle(dirName);
 		boolean foundTemp = false;
 		for (FileHandle file : dir.list()){
@@ -118,12 +119,14 @@ public class FileUtils {
 	}
 	
 	public static boolean fileExists( String name ){
+		BundleWriter.flush( name );
 		FileHandle file = getFileHandle( name );
 		return file.exists() && !file.isDirectory() && file.length() > 0;
 	}
 
 	//returns length of a file in bytes, or 0 if file does not exist
 	public static long fileLength( String name ){
+		BundleWriter.flush( name );
 		FileHandle file = getFileHandle( name );
 		if (!file.exists() || file.isDirectory()){
 			return 0;
@@ -133,6 +136,7 @@ public class FileUtils {
 	}
 	
 	public static boolean deleteFile( String name ){
+		BundleWriter.flush( name );
 		return getFileHandle( name ).delete();
 	}
 
@@ -141,6 +145,7 @@ public class FileUtils {
 	public static void overwriteFile( String name, int bytes ){
 		byte[] data = new byte[bytes];
 		Arrays.fill(data, (byte)1);
+		BundleWriter.flush( name );
 		getFileHandle( name ).writeBytes(data, false);
 	}
 	
@@ -152,6 +157,7 @@ public class FileUtils {
 	}
 	
 	public static boolean deleteDir( String name ){
+		BundleWriter.flush();
 		FileHandle dir = getFileHandle( name );
 		
 		if (dir == null || !dir.isDirectory()){
@@ -162,6 +168,7 @@ public class FileUtils {
 	}
 
 	public static ArrayList<String> filesInDir( String name ){
+		BundleWriter.flush();
 		FileHandle dir = getFileHandle( name );
 		ArrayList result = new ArrayList();
 		if (dir != null && dir.isDirectory()){
@@ -176,6 +183,7 @@ public class FileUtils {
 	
 	//only works for base path
 	public static Bundle bundleFromFile( String fileName ) throws IOException{
+		BundleWriter.flush( fileName );
 		try {
 			FileHandle file = getFileHandle( fileName );
 			if (!file.exists() || file.isDirectory() || file.length() == 0) {
@@ -198,6 +206,8 @@ public class FileUtils {
 	
 	//only works for base path
 	public static void bundleToFile( String fileName, Bundle bundle ) throws IOException{
+		//an older queued write must not land on top of this one
+		BundleWriter.flush( fileName );
 		try {
 			FileHandle file = getFileHandle(fileName);
 
@@ -218,6 +228,18 @@ public class FileUtils {
 		}
 	}
 	
+	//only works for base path
+	//returns immediately, the file is written on a background thread. Reads and other file
+	// operations through this class wait for pending writes, onFailure runs on the render thread
+	public static void bundleToFileAsync( String fileName, Bundle bundle, Callback onFailure ){
+		BundleWriter.enqueue( fileName, bundle, onFailure );
+	}
+
+	//blocks until all asynchronous bundle writes are finished
+	public static void flushWrites(){
+		BundleWriter.flush();
+	}
+	
 	private static void bundleToStream( OutputStream output, Bundle bundle ) throws IOException{
 		Bundle.write( bundle, output );
 		output.close();
@@ -0,0 +1,562 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.watabou.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Owns all the mutable state of a path search, so that searches from different threads
+ * (actor thread, UI previews, headless tools) do not trample each other.
+ * PathFinder's static methods work on a shared default context.</p>
+ * <p>
+ * Single target searches (find, getStep) use A* over the odd-q hex grid with a cube distance
+ * heuristic. Visited cells are generation-stamped, so starting a new search is O(1).
+ * Distance maps (buildDistanceMap, getStepBack) are still full BFS floods.</p>
+ */
+public class PathContext {
+
+	public int[] distance;
+	private int[] maxVal;
+
+	private boolean[] goals;
+	private int[] queue;
+	private boolean[] queued; //currently only used in getStepBack, other can piggyback on distance
+
+	private int size = 0;
+	private int width = 0;
+
+	private int[][] dir;
+	private int[][] dirLR;
+
+	//A* state, a cell's score is only valid when its stamp matches the current generation
+	private int[] score;
+	private int[] seen;
+	private int[] closed;
+	private int generation = 0;
+
+	//open set is a binary heap of packed (f, -g, cell) keys, stale entries are skipped when popped
+	private long[] open = new long[64];
+	private int openSize = 0;
+
+	private static final int CELL_BITS = 23;
+	private static final int SCORE_BITS = 20;
+	private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+	private static final int SCORE_MASK = (1 << SCORE_BITS) - 1;
+
+	public PathContext(){
+	}
+
+	public PathContext( int width, int height ){
+		setMapSize( width, height );
+	}
+
+	public int width(){
+		return width;
+	}
+
+	public void setMapSize( int width, int height ) {
+
+		if (this.width == width && this.size == width * height){
+			return;
+		}
+
+		this.width = width;
+		this.size = width * height;
+
+		distance = new int[size];
+		goals = new boolean[size];
+		queue = new int[size];
+		queued = new boolean[size];
+
+		maxVal = new int[size];
+		Arrays.fill(maxVal, Integer.MAX_VALUE);
+
+		score = new int[size];
+		seen = new int[size];
+		closed = new int[size];
+		generation = 0;
+
+		//       1
+		//     ______
+		// 6  /      \  4
+		//   /        \
+		//   \        /
+		// 3  \______/  2
+		//        5
+		dir = new int[][] {
+			{ -width, +1, -1, -width+1, +width, -width-1 }, // even
+			{ -width, +width+1, +width-1, +1, +width, -1 }}; // odd
+		//       3
+		//     ______
+		// 1  /      \  5
+		//   /        \
+		//   \        /
+		// 2  \______/  6
+		//        4
+		dirLR = new int[][] {
+			{ -width-1,       -1, -width, +width, -width+1, +1 }, // even
+			{       -1, +width-1, -width, +width, +1, +width+1 }}; // odd
+	}
+
+	public PathFinder.Path find( int from, int to, boolean[] passable ) {
+
+		int d = search( from, to, passable );
+		if (d < 0) {
+			return null;
+		}
+
+		PathFinder.Path result = new PathFinder.Path();
+		int s = from;
+
+		// From the starting position we are moving downwards,
+		// until we reach the ending point
+		do {
+			s = descend( s );
+			result.add( s );
+		} while (s != to);
+
+		return result;
+	}
+
+	public int getStep( int from, int to, boolean[] passable ) {
+
+		if (search( from, to, passable ) < 0) {
+			return -1;
+		}
+
+		// From the starting position we are making one step downwards
+		return descend( from );
+	}
+
+	//walks down the distance map of the last full buildDistanceMap call rooted at 'to'.
+	//Gives the same path as find() would over the same passable map
+	public PathFinder.Path descendDistanceMap( int from, int to ) {
+
+		if (from == to) {
+			return null;
+		}
+
+		PathFinder.Path result = new PathFinder.Path();
+		int s = from;
+		int minD = distance[from];
+
+		do {
+			int mins = s;
+			for (int i=0; i < dir[0].length; i++) {
+
+				int n = s + dir[(s % width) & 1][i];
+				if (n >= 0 && n < size && distance[n] < minD) {
+					minD = distance[n];
+					mins = n;
+				}
+			}
+			if (mins == s) {
+				return null;
+			}
+			s = mins;
+			result.add( s );
+		} while (s != to);
+
+		return result;
+	}
+
+	//picks the first neighbour in dir order which is one step closer to the search origin.
+	//Only valid for cells on a shortest path, as only those are guaranteed to have exact scores
+	private int descend( int s ) {
+
+		int minD = score[s];
+		int mins = s;
+
+		for (int i=0; i < dir[0].length; i++) {
+
+			int n = s + dir[(s % width) & 1][i];
+			if (n >= 0 && n < size && closed[n] == generation && score[n] < minD) {
+				minD = score[n];
+				mins = n;
+			}
+		}
+
+		return mins;
+	}
+
+	//A* from 'to' towards 'from', returns the length of the shortest path or -1.
+	//The search is run in reverse and does not stop at the first arrival at 'from': every cell
+	//whose f does not exceed the path length gets expanded, which closes every cell on every
+	//shortest path with its exact distance. This keeps step choice identical to the BFS flood.
+	private int search( int from, int to, boolean[] passable ) {
+
+		if (from == to) {
+			return -1;
+		}
+
+		if (++generation == Integer.MAX_VALUE) {
+			Arrays.fill(seen, 0);
+			Arrays.fill(closed, 0);
+			generation = 1;
+		}
+		openSize = 0;
+
+		int gq = from % width;
+		int gr = from / width - (gq >> 1);
+
+		int found = -1;
+
+		seen[to] = generation;
+		score[to] = 0;
+		push( heuristic( to, gq, gr ), 0, to );
+
+		while (openSize > 0) {
+
+			long top = pop();
+			int step = (int)(top & CELL_MASK);
+			int f = (int)(top >>> (CELL_BITS + SCORE_BITS));
+
+			if (found != -1 && f > found) {
+				break;
+			}
+			if (closed[step] == generation) {
+				continue;
+			}
+			closed[step] = generation;
+
+			if (step == from) {
+				found = score[step];
+				continue;
+			}
+
+			int nextDistance = score[step] + 1;
+
+			int start = (step % width == 0 ? 2 : 0);
+			int end   = ((step+1) % width == 0 ? 2 : 0);
+			for (int i = start; i < dirLR[0].length - end; i++) {
+
+				int n = step + dirLR[(step % width) & 1][i];
+				if (n == from || (n >= 0 && n < size && passable[n])) {
+					if (seen[n] != generation || score[n] > nextDistance) {
+						seen[n] = generation;
+						score[n] = nextDistance;
+						push( nextDistance + heuristic( n, gq, gr ), nextDistance, n );
+					}
+				}
+			}
+		}
+
+		return found;
+	}
+
+	//cube distance on the odd-q layout
+	private int heuristic( int cell, int gq, int gr ) {
+		int q = cell % width;
+		int r = cell / width - (q >> 1);
+		int dq = q - gq;
+		int dr = r - gr;
+		return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+	}
+
+	//ties on f are broken towards the larger g, which keeps the search pointed at the goal
+	private void push( int f, int g, int cell ) {
+
+		long key = ((long)f << (CELL_BITS + SCORE_BITS))
+				| ((long)(SCORE_MASK - g) << CELL_BITS)
+				| cell;
+
+		if (openSize == open.length) {
+			open = Arrays.copyOf(open, openSize * 2);
+		}
+
+		int i = openSize++;
+		while (i > 0) {
+			int parent = (i - 1) >> 1;
+			if (open[parent] <= key) {
+				break;
+			}
+			open[i] = open[parent];
+			i = parent;
+		}
+		open[i] = key;
+	}
+
+	private long pop() {
+
+		long result = open[0];
+		long last = open[--openSize];
+
+		int i = 0;
+		int half = openSize >> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < openSize && open[child + 1] < open[child]) {
+				child++;
+			}
+			if (last <= open[child]) {
+				break;
+			}
+			open[i] = open[child];
+			i = child;
+		}
+		open[i] = last;
+
+		return result;
+	}
+
+	public int getStepBack( int cur, int from, int lookahead, boolean[] passable, boolean canApproachFromPos ) {
+
+		int d = buildEscapeDistanceMap( cur, from, lookahead, passable );
+		if (d == 0) return -1;
+
+		if (!canApproachFromPos) {
+			//We can't approach the position we are retreating from
+			//re-calculate based on this, and reduce the target distance if need-be
+			int head = 0;
+			int tail = 0;
+
+			int newD = distance[cur];
+			BArray.setFalse(queued);
+
+			queue[tail++] = cur;
+			queued[cur] = true;
+
+			while (head < tail) {
+				int step = queue[head++];
+
+				if (distance[step] > newD) {
+					newD = distance[step];
+				}
+
+				int start = (step % width == 0 ? 2 : 0);
+				int end = ((step + 1) % width == 0 ? 2 : 0);
+				for (int i = start; i < dirLR[0].length - end; i++) {
+
+					int n = step + dirLR[(step % width) & 1][i];
+					if (n >= 0 && n < size && passable[n]) {
+						if (distance[n] < distance[cur]) {
+							passable[n] = false;
+						} else if (distance[n] >= distance[step] && !queued[n]) {
+							// Add to queue
+							queue[tail++] = n;
+							queued[n] = true;
+						}
+					}
+				}
+
+			}
+
+			d = Math.min(newD, d);
+		}
+
+		for (int i=0; i < size; i++) {
+			goals[i] = distance[i] == d;
+		}
+		if (!buildDistanceMap( cur, goals, passable )) {
+			return -1;
+		}
+
+		int s = cur;
+
+		// From the starting position we are making one step downwards
+		int minD = distance[s];
+		int mins = s;
+
+		for (int i=0; i < dir[0].length; i++) {
+
+			int n = s + dir[(s % width) & 1][i];
+			int thisD = distance[n];
+
+			if (thisD < minD) {
+				minD = thisD;
+				mins = n;
+			}
+		}
+
+		return mins;
+	}
+
+	public void buildDistanceMap( int to, boolean[] passable, int limit ) {
+
+		System.arraycopy(maxVal, 0, distance, 0, maxVal.length);
+
+		int head = 0;
+		int tail = 0;
+
+		// Add to queue
+		queue[tail++] = to;
+		distance[to] = 0;
+
+		while (head < tail) {
+
+			// Remove from queue
+			int step = queue[head++];
+
+			int nextDistance = distance[step] + 1;
+			if (nextDistance > limit) {
+				return;
+			}
+
+			int start = (step % width == 0 ? 2 : 0);
+			int end   = ((step+1) % width == 0 ? 2 : 0);
+			for (int i = start; i < dirLR[0].length - end; i++) {
+
+				int n = step + dirLR[(step % width) & 1][i];
+				if (n >= 0 && n < size && passable[n] && (distance[n] > nextDistance)) {
+					// Add to queue
+					queue[tail++] = n;
+					distance[n] = nextDistance;
+				}
+
+			}
+		}
+	}
+
+	private boolean buildDistanceMap( int from, boolean[] to, boolean[] passable ) {
+
+		if (to[from]) {
+			return false;
+		}
+
+		System.arraycopy(maxVal, 0, distance, 0, maxVal.length);
+
+		boolean pathFound = false;
+
+		int head = 0;
+		int tail = 0;
+
+		// Add to queue
+		for (int i=0; i < size; i++) {
+			if (to[i]) {
+				queue[tail++] = i;
+				distance[i] = 0;
+			}
+		}
+
+		while (head < tail) {
+
+			// Remove from queue
+			int step = queue[head++];
+			if (step == from) {
+				pathFound = true;
+				break;
+			}
+			int nextDistance = distance[step] + 1;
+
+			int start = (step % width == 0 ? 2 : 0);
+			int end   = ((step+1) % width == 0 ? 2 : 0);
+			for (int i = start; i < dirLR[0].length - end; i++) {
+
+				int n = step + dirLR[(step % width) & 1][i];
+				if (n == from || (n >= 0 && n < size && passable[n] && (distance[n] > nextDistance))) {
+					// Add to queue
+					queue[tail++] = n;
+					distance[n] = nextDistance;
+				}
+
+			}
+		}
+
+		return pathFound;
+	}
+
+	// the lookahead is the target number of cells to retreat toward from our current position's
+	// distance from the position we are escaping from. Returns the highest found distance, up to the lookahead
+	private int buildEscapeDistanceMap( int cur, int from, int lookAhead, boolean[] passable ) {
+
+		System.arraycopy(maxVal, 0, distance, 0, maxVal.length);
+
+		int destDist = Integer.MAX_VALUE;
+
+		int head = 0;
+		int tail = 0;
+
+		// Add to queue
+		queue[tail++] = from;
+		distance[from] = 0;
+
+		int dist = 0;
+
+		while (head < tail) {
+
+			// Remove from queue
+			int step = queue[head++];
+			dist = distance[step];
+
+			if (dist > destDist) {
+				return destDist;
+			}
+
+			if (step == cur) {
+				destDist = dist + lookAhead;
+			}
+
+			int nextDistance = dist + 1;
+
+			int start = (step % width == 0 ? 2 : 0);
+			int end   = ((step+1) % width == 0 ? 2 : 0);
+			for (int i = start; i < dirLR[0].length - end; i++) {
+
+				int n = step + dirLR[(step % width) & 1][i];
+				if (n >= 0 && n < size && passable[n] && distance[n] > nextDistance) {
+					// Add to queue
+					queue[tail++] = n;
+					distance[n] = nextDistance;
+				}
+
+			}
+		}
+
+		return dist;
+	}
+
+	public void buildDistanceMap( int to, boolean[] passable ) {
+
+		System.arraycopy(maxVal, 0, distance, 0, maxVal.length);
+
+		int head = 0;
+		int tail = 0;
+
+		// Add to queue
+		queue[tail++] = to;
+		distance[to] = 0;
+
+		while (head < tail) {
+
+			// Remove from queue
+			int step = queue[head++];
+			int nextDistance = distance[step] + 1;
+
+			int start = (step % width == 0 ? 2 : 0);
+			int end   = ((step+1) % width == 0 ? 2 : 0);
+			for (int i = start; i < dirLR[0].length - end; i++) {
+
+				int n = step + dirLR[(step % width) & 1][i];
+				if (n >= 0 && n < size && passable[n] && (distance[n] > nextDistance)) {
+					// Add to queue
+					queue[tail++] = n;
+					distance[n] = nextDistance;
+				}
+
+			}
+		}
+	}
+}
@@ -23,38 +23,94 @@ package com.watabou.utils;
 
 import com.watabou.noosa.Game;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Random {
 
 	//we store a stack of random number generators, which may be seeded deliberately or randomly.
 	//top of the stack is what is currently being used to generate new numbers.
-	//the base generator is always created with no seed, and cannot be popped.
-	private static ArrayDeque<java.util.Random> generators;
-	static {
-		resetGenerators();
+	//the base generator is created with no seed (unless given to newContext), and cannot be popped.
+	//Each thread has a stack of its own, so threads never wait on each other or consume each other's numbers
+	public static final class Context {
+
+		private Generator[] generators = new Generator[8];
+		private int size;
+
+		private Context( Generator base ){
+			generators[size++] = base;
+		}
+
+		private Generator top(){
+			return generators[size-1];
+		}
+
+		private Generator base(){
+			return generators[0];
+		}
+
+		private void push( Generator generator ){
+			if (size == generators.length){
+				Generator[] grown = new Generator[size*2];
+				System.arraycopy( generators, 0, grown, 0, size );
+				generators = grown;
+			}
+			generators[size++] = generator;
+		}
+
+		private void pop(){
+			generators[--size] = null;
+		}
 	}
 
-	public static synchronized void resetGenerators(){
-		generators = new ArrayDeque<>();
-		generators.push(new java.util.Random());
+	private static final ThreadLocal<Context> threadContext = new ThreadLocal<Context>(){
+		@Override
+		protected Context initialValue() {
+			return new Context( new Generator() );
+		}
+	};
+
+	private static Context context(){
+		return threadContext.get();
+	}
+
+	//a fresh stack, with an unseeded base generator
+	public static Context newContext(){
+		return new Context( new Generator() );
+	}
+
+	//a fresh stack whose base generator is seeded, for work which must be reproducible wherever it runs
+	public static Context newContext( long seed ){
+		return new Context( new Generator( scrambleSeed(seed) ) );
 	}
 
-	public static synchronized void pushGenerator(){
-		generators.push( new java.util.Random() );
+	//makes the given stack the current thread's stack, returning the previous one so it can be restored.
+	//A stack should only be used by one thread at a time
+	public static Context setContext( Context context ){
+		Context previous = threadContext.get();
+		threadContext.set( context != null ? context : newContext() );
+		return previous;
 	}
 
-	public static synchronized void pushGenerator( long seed ){
-		generators.push( new java.util.Random( scrambleSeed(seed) ) );
+	public static void resetGenerators(){
+		threadContext.set( newContext() );
+	}
+
+	public static void pushGenerator(){
+		context().push( new Generator() );
+	}
+
+	public static void pushGenerator( long seed ){
+		context().push( new Generator( scrambleSeed(seed) ) );
 	}
 
 	//scrambles a given seed, this helps eliminate patterns between the outputs of similar seeds
 	//Algorithm used is MX3 by Jon Maiga (jonkagstrom.com), CC0 license.
-	private static synchronized long scrambleSeed( long seed ){
+	private static long scrambleSeed( long seed ){
 		seed ^= seed >>> 32;
 		seed *= 0xbea225f9eb34556dL;
 		seed ^= seed >>> 29;
@@ -65,22 +121,27 @@ public class Random {
 		return seed;
 	}
 
-	public static synchronized void popGenerator(){
-		if (generators.size() == 1){
+	public static void popGenerator(){
+		Context context = context();
+		if (context.size == 1){
 			Game.reportException( new RuntimeException("tried to pop the last random number generator!"));
 		} else {
-			generators.pop();
+			context.pop();
 		}
 	}
 
+	private static Generator generator( boolean useGeneratorStack ){
+		Context context = context();
+		return useGeneratorStack ? context.top() : context.base();
+	}
+
 	//returns a uniformly distributed float in the range [0, 1)
-	public static synchronized float Float() {
+	public static float Float() {
 		return Float(true);
 	}
 
-	public static synchronized float Float( boolean useGeneratorStack ) {
-		if (useGeneratorStack)  return generators.peekFirst().nextFloat();
-		else                    return generators.peekLast().nextFloat();
+	public static float Float( boolean useGeneratorStack ) {
+		return generator( useGeneratorStack ).nextFloat();
 	}
 
 	//returns a uniformly distributed float in the range [0, max)
@@ -99,28 +160,26 @@ public class Random {
 	}
 
 	//returns a uniformly distributed int in the range [-2^31, 2^31)
-	public static synchronized int Int() {
+	public static int Int() {
 		return Int(true);
 	}
 
 	//returns a uniformly distributed int in the range [-2^31, 2^31)
 	//can either use the current generator in the stack, or force the first generator (pure random)
-	public static synchronized int Int( boolean useGeneratorStack ) {
-		if (useGeneratorStack)  return generators.peekFirst().nextInt();
-		else                    return generators.peekLast().nextInt();
+	public static int Int( boolean useGeneratorStack ) {
+		return generator( useGeneratorStack ).nextInt();
 	}
 
 	//returns a uniformly distributed int in the range [0, max)
-	public static synchronized int Int( int max ) {
+	public static int Int( int max ) {
 		return Int(max, true);
 	}
 
 	//returns a uniformly distributed int in the range [0, max)
 	//can either use the current generator in the stack, or force the first generator (pure random)
-	public static synchronized int Int( int max, boolean useGeneratorStack ) {
-		if (max <= 0)                   return 0;
-		else if (useGeneratorStack)     return generators.peekFirst().nextInt(max);
-		else                            return generators.peekLast().nextInt(max);
+	public static int Int( int max, boolean useGeneratorStack ) {
+		if (max <= 0)   return 0;
+		else            return generator( useGeneratorStack ).nextInt(max);
 	}
 
 	//returns a uniformly distributed int in the range [min, max)
@@ -151,15 +210,14 @@ public class Random {
 	}
 
 	//returns a uniformly distributed long in the range [-2^63, 2^63)
-	public static synchronized long Long() {
+	public static long Long() {
 		return Long(true);
 	}
 
 	//returns a uniformly distributed long in the range [-2^63, 2^63)
 	//can either use the current generator in the stack, or force the first generator (pure random)
-	public static synchronized long Long( boolean useGeneratorStack ) {
-		if (useGeneratorStack)  return generators.peekFirst().nextLong();
-		else                    return generators.peekLast().nextLong();
+	public static long Long( boolean useGeneratorStack ) {
+		return generator( useGeneratorStack ).nextLong();
 	}
 
 	//returns a mostly uniformly distributed long in the range [0, max)
@@ -253,8 +311,21 @@ public class Random {
 			null;
 	}
 
-	public synchronized static<T> void shuffle( List<?extends T> list){
-		Collections.shuffle(list, generators.peek());
+	//same swaps as Collections.shuffle
+	@SuppressWarnings("unchecked")
+	public static<T> void shuffle( List<?extends T> list){
+		if (list instanceof RandomAccess) {
+			for (int i = list.size(); i > 1; i--) {
+				Collections.swap( list, i - 1, Int( i ) );
+			}
+		} else {
+			Object[] array = list.toArray();
+			shuffle( array );
+			List<Object> dest = (List<Object>) list;
+			for (int i = 0; i < array.length; i++) {
+				dest.set( i, array[i] );
+			}
+		}
 	}
 
 	public static void shuffle( int[] array ) {
@@ -293,4 +364,62 @@ public class Random {
 			}
 		}
 	}
+
+	//xoshiro256** by David Blackman and Sebastiano Vigna (prng.di.unimi.it), CC0 license.
+	//State is expanded from the seed with SplitMix64. Unlike java.util.Random there is no atomic
+	//update per draw, generators are only ever used by the thread owning their stack.
+	private static final class Generator {
+
+		private static final AtomicLong uniquifier = new AtomicLong( 0x9e3779b97f4a7c15L );
+
+		private long s0, s1, s2, s3;
+
+		Generator(){
+			this( uniquifier.addAndGet( 0x2545f4914f6cdd1dL ) ^ System.nanoTime() );
+		}
+
+		Generator( long seed ){
+			s0 = splitMix( seed += 0x9e3779b97f4a7c15L );
+			s1 = splitMix( seed += 0x9e3779b97f4a7c15L );
+			s2 = splitMix( seed += 0x9e3779b97f4a7c15L );
+			s3 = splitMix( seed +  0x9e3779b97f4a7c15L );
+		}
+
+		private static long splitMix( long z ){
+			z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+			z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+			return z ^ (z >>> 31);
+		}
+
+		long nextLong(){
+			long result = Long.rotateLeft( s1 * 5, 7 ) * 9;
+			long t = s1 << 17;
+			s2 ^= s0;
+			s3 ^= s1;
+			s1 ^= s2;
+			s0 ^= s3;
+			s2 ^= t;
+			s3 = Long.rotateLeft( s3, 45 );
+			return result;
+		}
+
+		int nextInt(){
+			return (int)(nextLong() >>> 32);
+		}
+
+		//uniform in [0, bound), rejects the few values which would bias the result
+		int nextInt( int bound ){
+			int r = nextInt() >>> 1;
+			int m = bound - 1;
+			if ((bound & m) == 0) {
+				return (int)((bound * (long)r) >> 31);
+			}
+			for (int u = r; u - (r = u % bound) + m < 0; u = nextInt() >>> 1);
+			return r;
+		}
+
+		float nextFloat(){
+			return (nextLong() >>> 40) * 0x1.0p-24f;
+		}
+	}
 }
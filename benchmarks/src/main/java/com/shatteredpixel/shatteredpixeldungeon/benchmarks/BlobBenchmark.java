@@ -0,0 +1,88 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.shatteredpixel.shatteredpixeldungeon.benchmarks;
+
+import com.shatteredpixel.shatteredpixeldungeon.actors.blobs.Blob;
+import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//spreads a few gas clouds for a fixed number of turns, as a blob does when a potion shatters
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlobBenchmark {
+
+	private static final int TURNS = 20;
+	private static final int AMOUNT = 1000;
+
+	@Param({"1", "3"})
+	public int clouds;
+
+	private Level level;
+	private Blob[] blobs;
+	private int[] cells;
+
+	@Setup
+	public void setup(){
+		level = HeadlessDungeon.enterNewLevel( 1234, 7 );
+		cells = HeadlessDungeon.passableCells( level, clouds, 4 );
+		blobs = new Blob[clouds];
+		for (int i = 0; i < clouds; i++){
+			blobs[i] = new Blob();
+		}
+	}
+
+	@Benchmark
+	public int evolve(){
+		int volume = 0;
+		for (int i = 0; i < clouds; i++){
+			blobs[i].fullyClear();
+			blobs[i].seed( level, cells[i], AMOUNT );
+		}
+		for (int turn = 0; turn < TURNS; turn++){
+			for (Blob blob : blobs){
+				blob.act();
+				volume += blob.volume;
+			}
+		}
+		return volume;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.shatteredpixel.shatteredpixeldungeon.benchmarks;
+
+import com.shatteredpixel.shatteredpixeldungeon.Dungeon;
+import com.shatteredpixel.shatteredpixeldungeon.actors.hero.Hero;
+import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
+import com.shatteredpixel.shatteredpixeldungeon.mechanics.ShadowCaster;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldOfViewBenchmark {
+
+	private static final int ORIGINS = 256;
+
+	@Param({"2", "12", "22"})
+	public int depth;
+
+	@Param({"4", "8"})
+	public int distance;
+
+	private Level level;
+	private Hero hero;
+	private int[] origins;
+	private boolean[] fieldOfView;
+	private int origin;
+
+	@Setup
+	public void setup(){
+		level = HeadlessDungeon.enterNewLevel( 1234, depth );
+		hero = Dungeon.hero;
+		hero.viewDistance = distance;
+		origins = HeadlessDungeon.passableCells( level, ORIGINS, 3 );
+		fieldOfView = new boolean[level.length()];
+	}
+
+	private int next(){
+		origin = (origin + 1) % ORIGINS;
+		return origins[origin];
+	}
+
+	@Benchmark
+	public boolean[] castShadow(){
+		int cell = next();
+		ShadowCaster.castShadow( cell % level.width(), cell / level.width(), level.width(),
+				fieldOfView, level.losBlocking, distance );
+		return fieldOfView;
+	}
+
+	@Benchmark
+	public boolean[] updateFieldOfView(){
+		hero.pos = next();
+		level.updateFieldOfView( hero, fieldOfView );
+		return fieldOfView;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.shatteredpixel.shatteredpixeldungeon.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.shatteredpixel.shatteredpixeldungeon.Dungeon;
+import com.shatteredpixel.shatteredpixeldungeon.GamesInProgress;
+import com.shatteredpixel.shatteredpixeldungeon.actors.Actor;
+import com.shatteredpixel.shatteredpixeldungeon.actors.hero.HeroClass;
+import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
+import com.shatteredpixel.shatteredpixeldungeon.mechanics.FlowField;
+import com.watabou.utils.PathFinder;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+//Builds real levels without a window or renderer, for benchmarks and other tools.
+//Everything runs on the calling thread, no files are saved.
+public class HeadlessDungeon {
+
+	private static boolean started = false;
+
+	public static synchronized void start(){
+		if (started) return;
+
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		//no render loop, game code is driven directly by the caller
+		config.updatesPerSecond = -1;
+		new HeadlessApplication( new ApplicationAdapter(){}, config );
+
+		started = true;
+	}
+
+	//generates the given floor of a fresh run with the given seed
+	public static Level newLevel( long seed, int depth ){
+		start();
+
+		Dungeon.seed = seed;
+		GamesInProgress.selectedClass = HeroClass.WARRIOR;
+		Dungeon.init();
+		Dungeon.depth = depth;
+
+		return Dungeon.newLevel();
+	}
+
+	//the parts of Dungeon.switchLevel needed to act on a level, without saving anything
+	public static void enter( Level level ){
+		PathFinder.setMapSize( level.width(), level.height() );
+		FlowField.clear();
+
+		Dungeon.level = level;
+		Dungeon.hero.pos = level.getTransition( null ).cell();
+
+		Actor.init();
+	}
+
+	public static Level enterNewLevel( long seed, int depth ){
+		Level level = newLevel( seed, depth );
+		enter( level );
+		return level;
+	}
+
+	//a fixed selection of passable cells, so every run measures the same queries
+	public static int[] passableCells( Level level, int count, long seed ){
+		ArrayList<Integer> candidates = new ArrayList<>();
+		for (int i = 0; i < level.length(); i++){
+			if (level.passable[i] && level.insideMap( i )){
+				candidates.add( i );
+			}
+		}
+
+		Random random = new Random( seed );
+		int[] cells = new int[count];
+		for (int i = 0; i < count; i++){
+			cells[i] = candidates.get( random.nextInt( candidates.size() ) );
+		}
+		return cells;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.shatteredpixel.shatteredpixeldungeon.benchmarks;
+
+import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
+import com.watabou.utils.PathFinder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathFinderBenchmark {
+
+	private static final int QUERIES = 256;
+
+	//one floor from each region
+	@Param({"2", "7", "12", "17", "22"})
+	public int depth;
+
+	private Level level;
+	private int[] from;
+	private int[] to;
+	private int query;
+
+	@Setup
+	public void setup(){
+		level = HeadlessDungeon.enterNewLevel( 1234, depth );
+		from = HeadlessDungeon.passableCells( level, QUERIES, 1 );
+		to = HeadlessDungeon.passableCells( level, QUERIES, 2 );
+	}
+
+	//getStepBack marks cells it backs away through as impassable, so it works on its own copy of the map.
+	//This is a separate state so the other benchmarks don't pay for it
+	@State(Scope.Thread)
+	public static class StepBackMap {
+
+		private boolean[] passable;
+
+		@Setup
+		public void setup( PathFinderBenchmark bench ){
+			passable = new boolean[bench.level.length()];
+		}
+	}
+
+	private int next(){
+		query = (query + 1) % QUERIES;
+		return query;
+	}
+
+	@Benchmark
+	public PathFinder.Path find(){
+		int i = next();
+		return PathFinder.find( from[i], to[i], level.passable );
+	}
+
+	@Benchmark
+	public int getStep(){
+		int i = next();
+		return PathFinder.getStep( from[i], to[i], level.passable );
+	}
+
+	@Benchmark
+	public int getStepBack( StepBackMap map ){
+		int i = next();
+		//resetting the copy is part of the timing, per-call setup would cost more than the call itself
+		System.arraycopy( level.passable, 0, map.passable, 0, map.passable.length );
+		return PathFinder.getStepBack( from[i], to[i], 8, map.passable, false );
+	}
+
+	@Benchmark
+	public int[] buildDistanceMap(){
+		PathFinder.buildDistanceMap( to[next()], level.passable );
+		return PathFinder.distance;
+	}
+}
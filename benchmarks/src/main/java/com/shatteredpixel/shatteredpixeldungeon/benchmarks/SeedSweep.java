@@ -0,0 +1,225 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.shatteredpixel.shatteredpixeldungeon.benchmarks;
+
+import com.shatteredpixel.shatteredpixeldungeon.Dungeon;
+import com.shatteredpixel.shatteredpixeldungeon.GamesInProgress;
+import com.shatteredpixel.shatteredpixeldungeon.actors.hero.HeroClass;
+import com.shatteredpixel.shatteredpixeldungeon.actors.mobs.Mob;
+import com.shatteredpixel.shatteredpixeldungeon.actors.mobs.npcs.NPC;
+import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
+import com.shatteredpixel.shatteredpixeldungeon.levels.features.LevelTransition;
+import com.shatteredpixel.shatteredpixeldungeon.utils.DungeonSeed;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Locale;
+
+//Generates every floor of a range of seeds without the game client, one CSV row per floor.
+//Usage: SeedSweep <report file> <first seed> <seed count> [processes]
+//Dungeon state is static, so only one run can be generated at a time in a process.
+//The range is instead split between worker processes, by default one per core.
+public class SeedSweep {
+
+	private static final String HEADER = "seed,code,depth,branch,level,feeling,millis,"
+			+ "build_retries,builder_failures,mobs,heaps,npcs,error";
+
+	private static final int LAST_DEPTH = 26;
+
+	public static void main( String[] args ) throws Exception {
+		if (args.length >= 4 && args[0].equals( "--worker" )){
+			work( Long.parseLong( args[1] ), Long.parseLong( args[2] ), new File( args[3] ) );
+			return;
+		}
+
+		if (args.length < 3){
+			System.err.println( "usage: SeedSweep <report file> <first seed> <seed count> [processes]" );
+			System.exit( 2 );
+		}
+
+		File report = new File( args[0] );
+		long first = DungeonSeed.convertFromText( args[1] );
+		long count = Long.parseLong( args[2] );
+		int processes = args.length > 3 ? Integer.parseInt( args[3] )
+				: Runtime.getRuntime().availableProcessors();
+		processes = (int)Math.max( 1, Math.min( processes, count ) );
+
+		File parent = report.getAbsoluteFile().getParentFile();
+		parent.mkdirs();
+
+		String java = System.getProperty( "java.home" ) + File.separator + "bin" + File.separator + "java";
+		String classpath = System.getProperty( "java.class.path" );
+
+		//contiguous ranges, so the merged report stays in seed order
+		ArrayList<Process> workers = new ArrayList<>();
+		ArrayList<File> parts = new ArrayList<>();
+		long start = first;
+		for (int i = 0; i < processes; i++){
+			long size = count / processes + (i < count % processes ? 1 : 0);
+			File part = new File( parent, report.getName() + ".part" + i );
+			parts.add( part );
+
+			workers.add( new ProcessBuilder( java, "-cp", classpath, SeedSweep.class.getName(),
+					"--worker", Long.toString( start ), Long.toString( size ), part.getAbsolutePath() )
+					.inheritIO()
+					.start() );
+			start += size;
+		}
+
+		boolean failed = false;
+		for (Process worker : workers){
+			failed |= worker.waitFor() != 0;
+		}
+
+		try (PrintWriter out = new PrintWriter( new FileWriter( report ) )){
+			out.println( HEADER );
+			for (File part : parts){
+				if (!part.exists()) continue;
+				try (BufferedReader in = new BufferedReader( new FileReader( part ) )){
+					String line;
+					while ((line = in.readLine()) != null){
+						out.println( line );
+					}
+				}
+				part.delete();
+			}
+		}
+
+		System.err.println( "wrote " + report.getPath() );
+		if (failed){
+			System.err.println( "one or more workers exited abnormally, the report is incomplete" );
+			System.exit( 1 );
+		}
+	}
+
+	private static void work( long first, long count, File part ) throws IOException {
+		HeadlessDungeon.start();
+
+		try (PrintWriter out = new PrintWriter( new FileWriter( part ) )){
+			for (long seed = first; seed < first + count; seed++){
+				sweep( seed, out );
+				out.flush();
+			}
+		}
+	}
+
+	//generates the main branch in order, the same as a game which descends straight down.
+	//Side branches are generated right after the floor they are entered from
+	private static void sweep( long seed, PrintWriter out ){
+		Dungeon.seed = seed;
+		GamesInProgress.selectedClass = HeroClass.WARRIOR;
+		Dungeon.init();
+
+		//vault levels aren't recorded as generated by Dungeon, so branches are tracked here
+		HashSet<Integer> generated = new HashSet<>();
+
+		for (int depth = 1; depth <= LAST_DEPTH; depth++){
+			Level level = generate( seed, depth, 0, out );
+			//state after a failure can't be trusted, so the rest of the seed is skipped
+			if (level == null || !generateBranches( seed, level, generated, out )){
+				return;
+			}
+		}
+	}
+
+	private static boolean generateBranches( long seed, Level from, HashSet<Integer> generated, PrintWriter out ){
+		for (LevelTransition transition : from.transitions){
+			if (transition.destBranch == 0 || transition.destDepth > LAST_DEPTH
+					|| !generated.add( transition.destDepth + 1000*transition.destBranch )){
+				continue;
+			}
+
+			Level level = generate( seed, transition.destDepth, transition.destBranch, out );
+			if (level == null || !generateBranches( seed, level, generated, out )){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Level generate( long seed, int depth, int branch, PrintWriter out ){
+		Dungeon.depth = depth;
+		Dungeon.branch = branch;
+
+		long start = System.nanoTime();
+		Level level;
+		try {
+			level = Dungeon.level = Dungeon.newLevel();
+		} catch (Throwable t){
+			float millis = (System.nanoTime() - start) / 1_000_000f;
+			out.println( row( seed, depth, branch, null, millis, t ) );
+			return null;
+		}
+		float millis = (System.nanoTime() - start) / 1_000_000f;
+
+		out.println( row( seed, depth, branch, level, millis, null ) );
+		return level;
+	}
+
+	private static String row( long seed, int depth, int branch, Level level, float millis, Throwable error ){
+		StringBuilder row = new StringBuilder();
+		row.append( seed ).append( ',' )
+				.append( DungeonSeed.convertToCode( seed ) ).append( ',' )
+				.append( depth ).append( ',' )
+				.append( branch ).append( ',' );
+
+		if (level != null){
+			StringBuilder npcs = new StringBuilder();
+			for (Mob mob : level.mobs){
+				if (mob instanceof NPC){
+					if (npcs.length() > 0) npcs.append( ';' );
+					npcs.append( mob.getClass().getSimpleName() );
+				}
+			}
+
+			row.append( level.getClass().getSimpleName() ).append( ',' )
+					.append( level.feeling ).append( ',' )
+					.append( String.format( Locale.ROOT, "%.3f", millis ) ).append( ',' )
+					.append( level.buildRetries ).append( ',' )
+					.append( level.builderFailures ).append( ',' )
+					.append( level.mobs.size() ).append( ',' )
+					.append( level.heaps.size() ).append( ',' )
+					.append( npcs ).append( ',' );
+		} else {
+			row.append( ",," )
+					.append( String.format( Locale.ROOT, "%.3f", millis ) )
+					.append( ",,,,,," );
+		}
+
+		if (error != null){
+			StackTraceElement[] trace = error.getStackTrace();
+			String message = error.toString() + (trace.length > 0 ? " at " + trace[0] : "");
+			row.append( '"' ).append( message.replace( "\"", "\"\"" ).replace( '\n', ' ' ) ).append( '"' );
+		}
+
+		return row.toString();
+	}
+}
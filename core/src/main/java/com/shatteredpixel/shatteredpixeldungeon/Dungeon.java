@@ -73,6 +73,7 @@ import com.shatteredpixel.shatteredpixeldungeon.levels.VaultLevel;
 import com.shatteredpixel.shatteredpixeldungeon.levels.features.LevelTransition;
 import com.shatteredpixel.shatteredpixeldungeon.levels.rooms.secret.SecretRoom;
 import com.shatteredpixel.shatteredpixeldungeon.levels.rooms.special.SpecialRoom;
+import com.shatteredpixel.shatteredpixeldungeon.mechanics.FlowField;
 import com.shatteredpixel.shatteredpixeldungeon.messages.Messages;
 import com.shatteredpixel.shatteredpixeldungeon.scenes.GameScene;
 import com.shatteredpixel.shatteredpixeldungeon.ui.QuickSlotButton;
@@ -83,6 +84,8 @@ import com.watabou.noosa.Game;
 import com.watabou.utils.BArray;
 import com.watabou.utils.Bundlable;
 import com.watabou.utils.Bundle;
+import com.watabou.utils.Callback;
+import com.watabou.utils.CellBitSet;
 import com.watabou.utils.FileUtils;
 import com.watabou.utils.PathFinder;
 import com.watabou.utils.Random;
@@ -477,6 +480,7 @@ public class Dungeon {
 		}
 		
 		PathFinder.setMapSize(level.width(), level.height());
+		FlowField.clear();
 		
 		Dungeon.level = level;
 		hero.pos = pos;
@@ -623,85 +627,85 @@ public class Dungeon {
 	private static final String BADGES		= "badges";
 	
 	public static void saveGame( int save ) {
-		try {
-			Bundle bundle = new Bundle();
-
-			bundle.put( INIT_VER, initialVersion );
-			bundle.put( VERSION, version = Game.versionCode );
-			bundle.put( SEED, seed );
-			bundle.put( CUSTOM_SEED, customSeedText );
-			bundle.put( DAILY, daily );
-			bundle.put( DAILY_REPLAY, dailyReplay );
-			bundle.put( LAST_PLAYED, lastPlayed = Game.realTime);
-			bundle.put( CHALLENGES, challenges );
-			bundle.put( MOBS_TO_CHAMPION, mobsToChampion );
-			bundle.put( HERO, hero );
-			bundle.put( DEPTH, depth );
-			bundle.put( BRANCH, branch );
-
-			bundle.put( GOLD, gold );
-			bundle.put( ENERGY, energy );
-
-			for (int d : droppedItems.keyArray()) {
-				bundle.put(Messages.format(DROPPED, d), droppedItems.get(d));
-			}
+		Bundle bundle = new Bundle();
 
-			quickslot.storePlaceholders( bundle );
+		bundle.put( INIT_VER, initialVersion );
+		bundle.put( VERSION, version = Game.versionCode );
+		bundle.put( SEED, seed );
+		bundle.put( CUSTOM_SEED, customSeedText );
+		bundle.put( DAILY, daily );
+		bundle.put( DAILY_REPLAY, dailyReplay );
+		bundle.put( LAST_PLAYED, lastPlayed = Game.realTime);
+		bundle.put( CHALLENGES, challenges );
+		bundle.put( MOBS_TO_CHAMPION, mobsToChampion );
+		bundle.put( HERO, hero );
+		bundle.put( DEPTH, depth );
+		bundle.put( BRANCH, branch );
+
+		bundle.put( GOLD, gold );
+		bundle.put( ENERGY, energy );
+
+		for (int d : droppedItems.keyArray()) {
+			bundle.put(Messages.format(DROPPED, d), droppedItems.get(d));
+		}
 
-			Bundle limDrops = new Bundle();
-			LimitedDrops.store( limDrops );
-			bundle.put ( LIMDROPS, limDrops );
-			
-			int count = 0;
-			int ids[] = new int[chapters.size()];
-			for (Integer id : chapters) {
-				ids[count++] = id;
-			}
-			bundle.put( CHAPTERS, ids );
-			
-			Bundle quests = new Bundle();
-			Ghost		.Quest.storeInBundle( quests );
-			Wandmaker	.Quest.storeInBundle( quests );
-			Blacksmith	.Quest.storeInBundle( quests );
-			Imp			.Quest.storeInBundle( quests );
-			bundle.put( QUESTS, quests );
-			
-			SpecialRoom.storeRoomsInBundle( bundle );
-			SecretRoom.storeRoomsInBundle( bundle );
-			
-			Statistics.storeInBundle( bundle );
-			Notes.storeInBundle( bundle );
-			Generator.storeInBundle( bundle );
+		quickslot.storePlaceholders( bundle );
 
-			int[] bundleArr = new int[generatedLevels.size()];
-			for (int i = 0; i < generatedLevels.size(); i++){
-				bundleArr[i] = generatedLevels.get(i);
-			}
-			bundle.put( GENERATED_LEVELS, bundleArr);
-			
-			Scroll.save( bundle );
-			Potion.save( bundle );
-			Ring.save( bundle );
+		Bundle limDrops = new Bundle();
+		LimitedDrops.store( limDrops );
+		bundle.put ( LIMDROPS, limDrops );
+		
+		int count = 0;
+		int ids[] = new int[chapters.size()];
+		for (Integer id : chapters) {
+			ids[count++] = id;
+		}
+		bundle.put( CHAPTERS, ids );
+		
+		Bundle quests = new Bundle();
+		Ghost		.Quest.storeInBundle( quests );
+		Wandmaker	.Quest.storeInBundle( quests );
+		Blacksmith	.Quest.storeInBundle( quests );
+		Imp			.Quest.storeInBundle( quests );
+		bundle.put( QUESTS, quests );
+		
+		SpecialRoom.storeRoomsInBundle( bundle );
+		SecretRoom.storeRoomsInBundle( bundle );
+		
+		Statistics.storeInBundle( bundle );
+		Notes.storeInBundle( bundle );
+		Generator.storeInBundle( bundle );
 
-			Actor.storeNextID( bundle );
-			
-			Bundle badges = new Bundle();
-			Badges.saveLocal( badges );
-			bundle.put( BADGES, badges );
-			
-			FileUtils.bundleToFile( GamesInProgress.gameFile(save), bundle);
-			
-		} catch (IOException e) {
-			GamesInProgress.setUnknown( save );
-			ShatteredPixelDungeon.reportException(e);
+		int[] bundleArr = new int[generatedLevels.size()];
+		for (int i = 0; i < generatedLevels.size(); i++){
+			bundleArr[i] = generatedLevels.get(i);
 		}
+		bundle.put( GENERATED_LEVELS, bundleArr);
+		
+		Scroll.save( bundle );
+		Potion.save( bundle );
+		Ring.save( bundle );
+
+		Actor.storeNextID( bundle );
+		
+		Bundle badges = new Bundle();
+		Badges.saveLocal( badges );
+		bundle.put( BADGES, badges );
+		
+		//the bundle is a snapshot of the game state, encoding and writing it happens in the background
+		FileUtils.bundleToFileAsync( GamesInProgress.gameFile(save), bundle, new Callback() {
+			@Override
+			public void call() {
+				GamesInProgress.setUnknown( save );
+			}
+		});
 	}
 	
 	public static void saveLevel( int save ) throws IOException {
 		Bundle bundle = new Bundle();
 		bundle.put( LEVEL, level );
 		
-		FileUtils.bundleToFile(GamesInProgress.depthFile( save, depth, branch ), bundle);
+		FileUtils.bundleToFileAsync(GamesInProgress.depthFile( save, depth, branch ), bundle, null);
 	}
 	
 	public static void saveAll() throws IOException {
@@ -1019,14 +1023,16 @@ public class Dungeon {
 		GameScene.afterObserve();
 	}
 
-	//we store this to avoid having to re-allocate the array with each pathfind
+	//we store these to avoid having to re-allocate the arrays with each pathfind
 	private static boolean[] passable;
+	private static CellBitSet passableMask;
 
+	//every cell is overwritten by findPassable, so there is no need to clear the array
 	private static void setupPassable(){
-		if (passable == null || passable.length != Dungeon.level.length())
+		if (passable == null || passable.length != Dungeon.level.length()) {
 			passable = new boolean[Dungeon.level.length()];
-		else
-			BArray.setFalse(passable);
+			passableMask = new CellBitSet(Dungeon.level.length());
+		}
 	}
 
 	public static boolean[] findPassable(Char ch, boolean[] pass, boolean[] vis, boolean chars){
@@ -1035,14 +1041,25 @@ public class Dungeon {
 
 	public static boolean[] findPassable(Char ch, boolean[] pass, boolean[] vis, boolean chars, boolean considerLarge){
 		setupPassable();
-		if (ch.flying || ch.buff( Amok.class ) != null) {
-			BArray.or( pass, Dungeon.level.avoid, passable );
+		boolean flying = ch.flying || ch.buff( Amok.class ) != null;
+		boolean large = considerLarge && Char.hasProp(ch, Char.Property.LARGE);
+
+		if (pass == Dungeon.level.passable && (flying || large)) {
+			//combines the level's packed maps a word at a time, then unpacks the result once
+			passableMask.set( Dungeon.level.passableBits );
+			if (flying) passableMask.or( Dungeon.level.avoidBits );
+			if (large)  passableMask.and( Dungeon.level.openSpaceBits );
+			passableMask.toArray( passable );
 		} else {
-			System.arraycopy( pass, 0, passable, 0, Dungeon.level.length() );
-		}
+			if (flying) {
+				BArray.or( pass, Dungeon.level.avoid, passable );
+			} else {
+				System.arraycopy( pass, 0, passable, 0, Dungeon.level.length() );
+			}
 
-		if (considerLarge && Char.hasProp(ch, Char.Property.LARGE)){
-			BArray.and( passable, Dungeon.level.openSpace, passable );
+			if (large){
+				BArray.and( passable, Dungeon.level.openSpace, passable );
+			}
 		}
 
 		ch.modifyPassable(passable);
@@ -29,6 +29,7 @@ import com.watabou.noosa.Game;
 import com.watabou.noosa.audio.Music;
 import com.watabou.noosa.audio.Sample;
 import com.watabou.utils.DeviceCompat;
+import com.watabou.utils.FileUtils;
 import com.watabou.utils.PlatformSupport;
 
 public class ShatteredPixelDungeon extends Game {
@@ -70,8 +71,16 @@ public class ShatteredPixelDungeon extends Game {
 		
 	}
 
+	@Override
+	public void pause() {
+		super.pause();
+		//the app may be killed while paused, so queued saves have to reach the disk now
+		FileUtils.flushWrites();
+	}
+
 	@Override
 	public void finish() {
+		FileUtils.flushWrites();
 		if (!DeviceCompat.isiOS()) {
 			super.finish();
 		} else {
@@ -32,13 +32,21 @@ import com.watabou.utils.Bundlable;
 import com.watabou.utils.Bundle;
 import com.watabou.utils.SparseArray;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Set;
 
 public abstract class Actor implements Bundlable {
 	
 	public static final float TICK	= 1f;
 
 	private float time;
+	//value of timeShift when time was last brought up to date, see fixTime
+	private long timeBase = 0;
+	//position in the turn queue, or -1 if this actor is not scheduled
+	private int queueIndex = -1;
 
 	private int id = 0;
 
@@ -59,11 +67,14 @@ public abstract class Actor implements Bundlable {
 
 	//Always spends exactly the specified amount of time, regardless of time-influencing factors
 	protected void spendConstant( float time ){
-		this.time += time;
-		//if time is very close to a whole number, round to a whole number to fix errors
-		float ex = Math.abs(this.time % 1f);
-		if (ex < .001f){
-			this.time = Math.round(this.time);
+		synchronized (Actor.class) {
+			float newTime = time() + time;
+			//if time is very close to a whole number, round to a whole number to fix errors
+			float ex = Math.abs(newTime % 1f);
+			if (ex < .001f){
+				newTime = Math.round(newTime);
+			}
+			setTime(newTime);
 		}
 	}
 
@@ -73,22 +84,29 @@ public abstract class Actor implements Bundlable {
 	}
 
 	public void spendToWhole(){
-		time = (float)Math.ceil(time);
+		synchronized (Actor.class) {
+			setTime((float)Math.ceil(time()));
+		}
 	}
 	
 	protected void postpone( float time ) {
-		if (this.time < now + time) {
-			this.time = now + time;
-			//if time is very close to a whole number, round to a whole number to fix errors
-			float ex = Math.abs(this.time % 1f);
-			if (ex < .001f){
-				this.time = Math.round(this.time);
+		synchronized (Actor.class) {
+			if (time() < now + time) {
+				float newTime = now + time;
+				//if time is very close to a whole number, round to a whole number to fix errors
+				float ex = Math.abs(newTime % 1f);
+				if (ex < .001f){
+					newTime = Math.round(newTime);
+				}
+				setTime(newTime);
 			}
 		}
 	}
 	
 	public float cooldown() {
-		return time - now;
+		synchronized (Actor.class) {
+			return time() - now;
+		}
 	}
 
 	public void clearTime() {
@@ -101,11 +119,36 @@ public abstract class Actor implements Bundlable {
 	}
 
 	public void timeToNow() {
-		time = now;
+		synchronized (Actor.class) {
+			setTime(now);
+		}
 	}
 	
 	protected void deactivate() {
-		time = Float.MAX_VALUE;
+		synchronized (Actor.class) {
+			setTime(Float.MAX_VALUE);
+		}
+	}
+
+	//brings time up to date with any fixTime calls made since it was last read.
+	//Callers must hold the Actor.class lock
+	private float time(){
+		if (queueIndex != -1 && timeBase != timeShift){
+			//shifts are whole numbers no larger than the time itself, so this is exact,
+			//same as having subtracted each of them in turn
+			time -= (timeShift - timeBase);
+			timeBase = timeShift;
+		}
+		return time;
+	}
+
+	//Callers must hold the Actor.class lock
+	private void setTime( float time ){
+		this.time = time;
+		timeBase = timeShift;
+		if (queueIndex != -1){
+			reschedule( this );
+		}
 	}
 	
 	protected void onAdd() {}
@@ -117,13 +160,17 @@ public abstract class Actor implements Bundlable {
 
 	@Override
 	public void storeInBundle( Bundle bundle ) {
-		bundle.put( TIME, time );
+		synchronized (Actor.class) {
+			bundle.put( TIME, time() );
+		}
 		bundle.put( ID, id );
 	}
 
 	@Override
 	public void restoreFromBundle( Bundle bundle ) {
-		time = bundle.getFloat( TIME );
+		synchronized (Actor.class) {
+			setTime( bundle.getFloat( TIME ) );
+		}
 		int incomingID = bundle.getInt( ID );
 		if (Actor.findById(incomingID) == null){
 			id = incomingID;
@@ -146,11 +193,27 @@ public abstract class Actor implements Bundlable {
 	
 	private static HashSet<Actor> all = new HashSet<>();
 	private static HashSet<Char> chars = new HashSet<>();
+
+	//read-only copies of all and chars handed out by all() and chars(), shared by every caller
+	//until the next add or remove. Null when out of date, they are only rebuilt when next asked for
+	private static volatile Set<Actor> allView;
+	private static volatile Set<Char> charsView;
 	private static volatile Actor current;
 
 	private static SparseArray<Actor> ids = new SparseArray<>();
 	private static int nextID = 1;
 
+	//every actor in all, as a binary heap ordered by when they act next. See actsBefore
+	private static Actor[] queue = new Actor[64];
+	private static int queueSize = 0;
+
+	//total of all whole-number time shifts made by fixTime, applied to each actor lazily
+	private static long timeShift = 0;
+
+	//the char standing on each cell of the current level. Kept up to date by add, remove, Char.move
+	//and Level.occupyCell, and re-checked before every actor turn for positions that were set directly
+	private static Char[] occupants = new Char[0];
+
 	private static float now = 0;
 	
 	public static float now(){
@@ -161,8 +224,22 @@ public abstract class Actor implements Bundlable {
 		
 		now = 0;
 
+		for (int i = 0; i < queueSize; i++){
+			queue[i].time();
+			queue[i].queueIndex = -1;
+			queue[i] = null;
+		}
+		queueSize = 0;
+
+		for (Char ch : chars){
+			ch.occupiedCell = -1;
+		}
+		Arrays.fill(occupants, null);
+
 		all.clear();
 		chars.clear();
+		allView = null;
+		charsView = null;
 
 		ids.clear();
 	}
@@ -171,19 +248,15 @@ public abstract class Actor implements Bundlable {
 		
 		if (all.isEmpty()) return;
 		
-		float min = Float.MAX_VALUE;
-		for (Actor a : all) {
-			if (a.time < min) {
-				min = a.time;
-			}
-		}
+		//the head of the queue is always the earliest actor
+		float min = queue[0].time();
 
 		//Only pull everything back by whole numbers
 		//So that turns always align with a whole number
 		min = (int)min;
-		for (Actor a : all) {
-			a.time -= min;
-		}
+		//moving every actor back by the same amount doesn't change their order,
+		//so the shift is only recorded here and applied when each actor's time is next read
+		timeShift += (long)min;
 
 		if (Dungeon.hero != null && all.contains( Dungeon.hero ) && !(Dungeon.level instanceof VaultLevel)) {
 			Statistics.duration += min;
@@ -249,25 +322,19 @@ public abstract class Actor implements Bundlable {
 		do {
 			
 			current = null;
+			Actor acting = null;
 			if (!interrupted && !Game.switchingScene()) {
-				float earliest = Float.MAX_VALUE;
-
-				for (Actor actor : all) {
-					
-					//some actors will always go before others if time is equal.
-					if (actor.time < earliest ||
-							actor.time == earliest && (current == null || actor.actPriority > current.actPriority)) {
-						earliest = actor.time;
-						current = actor;
+				synchronized (Actor.class) {
+					syncOccupancy();
+					if (queueSize > 0) {
+						acting = queue[0];
+						now = acting.time();
+						current = acting;
 					}
-					
 				}
 			}
 
-			if  (current != null) {
-
-				now = current.time;
-				Actor acting = current;
+			if  (acting != null) {
 
 				if (acting instanceof Char && ((Char) acting).sprite != null) {
 					// If it's character's turn to act, but its sprite
@@ -340,12 +407,17 @@ public abstract class Actor implements Bundlable {
 		ids.put( actor.id(),  actor );
 
 		all.add( actor );
+		allView = null;
 		actor.time += time;
+		actor.timeBase = timeShift;
+		enqueue( actor );
 		actor.onAdd();
 		
 		if (actor instanceof Char) {
 			Char ch = (Char)actor;
 			chars.add( ch );
+			charsView = null;
+			occupy( ch );
 			for (Buff buff : ch.buffs()) {
 				add(buff);
 			}
@@ -355,8 +427,14 @@ public abstract class Actor implements Bundlable {
 	public static synchronized void remove( Actor actor ) {
 		
 		if (actor != null) {
-			all.remove( actor );
-			chars.remove( actor );
+			if (all.remove( actor )) {
+				allView = null;
+			}
+			if (chars.remove( actor )) {
+				charsView = null;
+				vacate( (Char)actor );
+			}
+			dequeue( actor );
 			actor.onRemove();
 
 			if (actor.id > 0) {
@@ -365,6 +443,85 @@ public abstract class Actor implements Bundlable {
 		}
 	}
 
+	//some actors will always go before others if time is equal, higher priority acts first.
+	//Ties on both go to the older actor, so that the order never depends on hashing
+	private static boolean actsBefore( Actor a, Actor b ){
+		float aTime = a.time();
+		float bTime = b.time();
+		if (aTime != bTime) {
+			return aTime < bTime;
+		} else if (a.actPriority != b.actPriority) {
+			return a.actPriority > b.actPriority;
+		} else {
+			return a.id < b.id;
+		}
+	}
+
+	private static void enqueue( Actor actor ){
+		if (queueSize == queue.length){
+			queue = Arrays.copyOf(queue, queueSize * 2);
+		}
+		actor.queueIndex = queueSize;
+		queue[queueSize++] = actor;
+		siftUp( actor.queueIndex );
+	}
+
+	private static void dequeue( Actor actor ){
+		int i = actor.queueIndex;
+		if (i == -1) return;
+
+		//leaves with its time up to date, as later shifts won't apply to it
+		actor.time();
+		actor.queueIndex = -1;
+
+		Actor last = queue[--queueSize];
+		queue[queueSize] = null;
+		if (last != actor){
+			queue[i] = last;
+			last.queueIndex = i;
+			reschedule( last );
+		}
+	}
+
+	private static void reschedule( Actor actor ){
+		siftDown( siftUp( actor.queueIndex ) );
+	}
+
+	private static int siftUp( int i ){
+		Actor actor = queue[i];
+		while (i > 0) {
+			int parent = (i - 1) >> 1;
+			if (!actsBefore( actor, queue[parent] )) {
+				break;
+			}
+			queue[i] = queue[parent];
+			queue[i].queueIndex = i;
+			i = parent;
+		}
+		queue[i] = actor;
+		actor.queueIndex = i;
+		return i;
+	}
+
+	private static void siftDown( int i ){
+		Actor actor = queue[i];
+		int half = queueSize >> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < queueSize && actsBefore( queue[child + 1], queue[child] )) {
+				child++;
+			}
+			if (!actsBefore( queue[child], actor )) {
+				break;
+			}
+			queue[i] = queue[child];
+			queue[i].queueIndex = i;
+			i = child;
+		}
+		queue[i] = actor;
+		actor.queueIndex = i;
+	}
+
 	//'freezes' a character in time for a specified amount of time
 	//USE CAREFULLY! Manipulating time like this is useful for some gameplay effects but is tricky
 	public static void delayChar( Char ch, float time ){
@@ -375,20 +532,134 @@ public abstract class Actor implements Bundlable {
 	}
 	
 	public static synchronized Char findChar( int pos ) {
-		for (Char ch : chars){
-			if (ch.pos == pos)
-				return ch;
+		if (!occupancyValid()) {
+			for (Char ch : chars){
+				if (ch.pos == pos)
+					return ch;
+			}
+			return null;
+		}
+
+		if (pos < 0 || pos >= occupants.length) {
+			return null;
+		}
+		Char ch = occupants[pos];
+		return ch != null && ch.pos == pos ? ch : null;
+	}
+
+	//all chars within the given hex distance of a cell, without going over every char
+	public static synchronized ArrayList<Char> findChars( int pos, int radius ) {
+		ArrayList<Char> result = new ArrayList<>();
+
+		if (!occupancyValid()) {
+			for (Char ch : chars){
+				if (Dungeon.level != null && Dungeon.level.distance( pos, ch.pos ) <= radius)
+					result.add( ch );
+			}
+			return result;
+		}
+
+		int w = Dungeon.level.width();
+		int h = Dungeon.level.height();
+		int cx = pos % w;
+		int cy = pos / w;
+
+		//each column of a hex area is a contiguous run of cells, see HexMath for the cube conversion
+		for (int dx = -radius; dx <= radius; dx++) {
+			int x = cx + dx;
+			if (x < 0 || x >= w) continue;
+
+			int shift = Math.floorDiv(dx + (cx & 1), 2);
+			int top = Math.max(0, cy + Math.max(-radius, -dx - radius) + shift);
+			int bottom = Math.min(h - 1, cy + Math.min(radius, -dx + radius) + shift);
+
+			for (int y = top; y <= bottom; y++) {
+				Char ch = occupants[x + y * w];
+				if (ch != null && ch.pos == x + y * w) {
+					result.add( ch );
+				}
+			}
+		}
+		return result;
+	}
+
+	//should be called whenever a char's position changes
+	public static synchronized void updateOccupancy( Char ch ) {
+		if (chars.contains( ch ) && ch.occupiedCell != ch.pos) {
+			vacate( ch );
+			occupy( ch );
+		}
+	}
+
+	private static boolean occupancyValid() {
+		if (Dungeon.level == null) {
+			return false;
+		}
+		if (occupants.length != Dungeon.level.length()) {
+			occupants = new Char[Dungeon.level.length()];
+			for (Char ch : chars) {
+				ch.occupiedCell = -1;
+				occupy( ch );
+			}
+		}
+		return true;
+	}
+
+	private static void occupy( Char ch ) {
+		if (ch.pos >= 0 && ch.pos < occupants.length) {
+			occupants[ch.pos] = ch;
+			ch.occupiedCell = ch.pos;
+		}
+	}
+
+	private static void vacate( Char ch ) {
+		if (ch.occupiedCell != -1 && ch.occupiedCell < occupants.length
+				&& occupants[ch.occupiedCell] == ch) {
+			occupants[ch.occupiedCell] = null;
+		}
+		ch.occupiedCell = -1;
+	}
+
+	//catches any positions which were assigned without going through updateOccupancy
+	private static void syncOccupancy() {
+		if (!occupancyValid()) return;
+		for (Char ch : chars) {
+			if (ch.occupiedCell != ch.pos || occupants[ch.pos] != ch) {
+				vacate( ch );
+				occupy( ch );
+			}
 		}
-		return null;
 	}
 
 	public static synchronized Actor findById( int id ) {
 		return ids.get( id );
 	}
 
-	public static synchronized HashSet<Actor> all() {
-		return new HashSet<>(all);
+	//the returned sets can't be modified, and never change as actors are added or removed.
+	//Iterating them is safe even while doing so, and checking membership is a hash lookup
+	public static Set<Actor> all() {
+		Set<Actor> view = allView;
+		if (view == null) {
+			synchronized (Actor.class) {
+				if (allView == null) {
+					allView = Collections.unmodifiableSet( new HashSet<>(all) );
+				}
+				view = allView;
+			}
+		}
+		return view;
 	}
 
-	public static synchronized HashSet<Char> chars() { return new HashSet<>(chars); }
+	public static Set<Char> chars() {
+		Set<Char> view = charsView;
+		if (view == null) {
+			synchronized (Actor.class) {
+				if (charsView == null) {
+					charsView = Collections.unmodifiableSet( new HashSet<>(chars) );
+				}
+				view = charsView;
+			}
+		}
+		return view;
+	}
 }
@@ -160,12 +160,17 @@ import com.watabou.utils.Random;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 
 public abstract class Char extends Actor {
 	
 	public int pos = 0;
+	//cell this char is registered on in Actor's occupancy grid, -1 if none
+	int occupiedCell = -1;
 	
 	public CharSprite sprite;
 	
@@ -193,6 +198,12 @@ public abstract class Char extends Actor {
 	public boolean[] fieldOfView = null;
 	
 	private LinkedHashSet<Buff> buffs = new LinkedHashSet<>();
+	//first attached buff of each concrete class, for buff(Class)
+	private IdentityHashMap<Class<? extends Buff>, Buff> buffsByClass = new IdentityHashMap<>();
+	//read-only snapshots handed out by buffs() and buffs(Class), dropped whenever buffs change.
+	//They are never modified after being built, so they stay safe to iterate while buffs are added or removed
+	private List<Buff> buffsSnapshot = null;
+	private IdentityHashMap<Class<?>, List<? extends Buff>> assignableSnapshots = new IdentityHashMap<>();
 	
 	@Override
 	protected boolean act() {
@@ -822,7 +833,7 @@ public abstract class Char extends Actor {
 		}
 
 		if (!(src instanceof LifeLink || src instanceof Hunger) && buff(LifeLink.class) != null){
-			HashSet<LifeLink> links = buffs(LifeLink.class);
+			HashSet<LifeLink> links = new HashSet<>(buffs(LifeLink.class));
 			for (LifeLink link : links.toArray(new LifeLink[0])){
 				if (Actor.findById(link.object) == null){
 					links.remove(link);
@@ -1136,18 +1147,27 @@ public abstract class Char extends Actor {
 		super.spend( time / timeScale );
 	}
 	
-	public synchronized LinkedHashSet<Buff> buffs() {
-		return new LinkedHashSet<>(buffs);
+	//returns a read-only snapshot of all buffs, in the order they were attached
+	public synchronized List<Buff> buffs() {
+		if (buffsSnapshot == null){
+			buffsSnapshot = Collections.unmodifiableList(new ArrayList<>(buffs));
+		}
+		return buffsSnapshot;
 	}
 	
 	@SuppressWarnings("unchecked")
-	//returns all buffs assignable from the given buff class
-	public synchronized <T extends Buff> HashSet<T> buffs( Class<T> c ) {
-		HashSet<T> filtered = new HashSet<>();
-		for (Buff b : buffs) {
-			if (c.isInstance( b )) {
-				filtered.add( (T)b );
+	//returns a read-only snapshot of all buffs assignable from the given buff class
+	public synchronized <T extends Buff> List<T> buffs( Class<T> c ) {
+		List<T> filtered = (List<T>)assignableSnapshots.get( c );
+		if (filtered == null) {
+			ArrayList<T> found = new ArrayList<>();
+			for (Buff b : buffs) {
+				if (c.isInstance( b )) {
+					found.add( (T)b );
+				}
 			}
+			filtered = found.isEmpty() ? Collections.<T>emptyList() : Collections.unmodifiableList(found);
+			assignableSnapshots.put( c, filtered );
 		}
 		return filtered;
 	}
@@ -1155,12 +1175,12 @@ public abstract class Char extends Actor {
 	@SuppressWarnings("unchecked")
 	//returns an instance of the specific buff class, if it exists. Not just assignable
 	public synchronized  <T extends Buff> T buff( Class<T> c ) {
-		for (Buff b : buffs) {
-			if (b.getClass() == c) {
-				return (T)b;
-			}
-		}
-		return null;
+		return (T)buffsByClass.get( c );
+	}
+
+	private void buffsChanged(){
+		buffsSnapshot = null;
+		assignableSnapshots.clear();
 	}
 
 	public synchronized boolean isCharmedBy( Char ch ) {
@@ -1187,7 +1207,12 @@ public abstract class Char extends Actor {
 			return false; //can't add buffs while frozen and game is loaded
 		}
 
-		buffs.add( buff );
+		if (buffs.add( buff )) {
+			if (!buffsByClass.containsKey( buff.getClass() )) {
+				buffsByClass.put( buff.getClass(), buff );
+			}
+			buffsChanged();
+		}
 		if (Actor.chars().contains(this)) Actor.add( buff );
 
 		if (sprite != null && buff.announced) {
@@ -1211,7 +1236,19 @@ public abstract class Char extends Actor {
 	
 	public synchronized boolean remove( Buff buff ) {
 		
-		buffs.remove( buff );
+		if (buffs.remove( buff )) {
+			if (buffsByClass.get( buff.getClass() ) == buff) {
+				//hand the index over to the next buff of the same class, if any
+				buffsByClass.remove( buff.getClass() );
+				for (Buff b : buffs) {
+					if (b.getClass() == buff.getClass()) {
+						buffsByClass.put( b.getClass(), b );
+						break;
+					}
+				}
+			}
+			buffsChanged();
+		}
 		Actor.remove( buff );
 
 		return true;
@@ -1269,6 +1306,7 @@ public abstract class Char extends Actor {
 		}
 
 		pos = step;
+		Actor.updateOccupancy( this );
 		
 		if (this != Dungeon.hero) {
 			sprite.visible = Dungeon.level.heroFOV[pos];
@@ -27,6 +27,7 @@ import com.shatteredpixel.shatteredpixeldungeon.effects.BlobEmitter;
 import com.shatteredpixel.shatteredpixeldungeon.journal.Notes;
 import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
 import com.watabou.utils.Bundle;
+import com.watabou.utils.PathFinder;
 import com.watabou.utils.Rect;
 import com.watabou.utils.Reflection;
 
@@ -47,9 +48,13 @@ public class Blob extends Actor {
 	
 	public boolean alwaysVisible = false;
 
+	//counts changes to the blob's cells, so views of it (see BlobEmitter) know when to refresh
+	private int version = 0;
+
 	private static final String CUR		= "cur";
 	private static final String START	= "start";
 	private static final String LENGTH	= "length";
+	private static final String AREA	= "area";
 	
 	@Override
 	public void storeInBundle( Bundle bundle ) {
@@ -73,6 +78,7 @@ public class Blob extends Actor {
 			bundle.put( START, start );
 			bundle.put( LENGTH, cur.length );
 			bundle.put( CUR, trim( start, end + 1 ) );
+			bundle.put( AREA, new int[]{ area.left, area.top, area.right, area.bottom } );
 			
 		}
 	}
@@ -101,6 +107,11 @@ public class Blob extends Actor {
 				volume += data[i];
 			}
 
+			if (bundle.contains( AREA )) {
+				int[] bounds = bundle.getIntArray( AREA );
+				area.set( bounds[0], bounds[1], bounds[2], bounds[3] );
+			}
+
 		}
 	}
 	
@@ -108,6 +119,7 @@ public class Blob extends Actor {
 	public boolean act() {
 		
 		spend( TICK );
+		version++;
 		
 		if (volume > 0) {
 
@@ -132,70 +144,77 @@ public class Blob extends Actor {
 		return true;
 	}
 
+	//only needed for saves from before the area was stored
 	public void setupArea(){
+		int width = Dungeon.level.width();
 		for (int cell=0; cell < cur.length; cell++) {
 			if (cur[cell] != 0){
-				area.union(cell%Dungeon.level.width(), cell/Dungeon.level.width());
+				area.union(cell%width, cell/width);
 			}
 		}
 	}
 	
+	public int version(){
+		return version;
+	}
+	
 	public void use( BlobEmitter emitter ) {
 		this.emitter = emitter;
 	}
 	
 	protected void evolve() {
-		
-		boolean[] blocking = Dungeon.level.solid;
-		int cell;
-		for (int i=area.top-1; i <= area.bottom; i++) {
-			for (int j = area.left-1; j <= area.right; j++) {
-				cell = j + i*Dungeon.level.width();
-				if (Dungeon.level.insideMap(cell)) {
-					if (!blocking[cell]) {
-
-						int count = 1;
-						int sum = cur[cell];
-
-						// TODO: Do it hexagonal way
-						if (j > area.left && !blocking[cell-1]) {
-							sum += cur[cell-1];
-							count++;
-						}
-						if (j < area.right && !blocking[cell+1]) {
-							sum += cur[cell+1];
-							count++;
-						}
-						if (i > area.top && !blocking[cell-Dungeon.level.width()]) {
-							sum += cur[cell-Dungeon.level.width()];
-							count++;
-						}
-						if (i < area.bottom && !blocking[cell+Dungeon.level.width()]) {
-							sum += cur[cell+Dungeon.level.width()];
+
+		Level level = Dungeon.level;
+		boolean[] blocking = level.solid;
+		int width = level.width();
+		int[][] neighbours = PathFinder.NEIGHBORS6;
+
+		//blobs spread at most one cell per turn, and never onto the map border
+		int top = Math.max( area.top-1, 1 );
+		int bottom = Math.min( area.bottom, level.height()-2 );
+		int left = Math.max( area.left-1, 1 );
+		int right = Math.min( area.right, width-2 );
+
+		//the area is rebuilt from the cells which are actually occupied, so it shrinks as a blob dissipates.
+		//It has to cover both cur and off, as subclasses still act on cur after this pass
+		int newLeft = Integer.MAX_VALUE, newTop = Integer.MAX_VALUE;
+		int newRight = Integer.MIN_VALUE, newBottom = Integer.MIN_VALUE;
+
+		for (int i = top; i <= bottom; i++) {
+			int cell = left + i*width;
+			for (int j = left; j <= right; j++, cell++) {
+
+				int value = 0;
+				if (!blocking[cell]) {
+					int count = 1;
+					int sum = cur[cell];
+
+					for (int n : neighbours[j & 1]) {
+						if (!blocking[cell + n]) {
+							sum += cur[cell + n];
 							count++;
 						}
+					}
 
-						int value = sum >= count ? (sum / count) - 1 : 0;
-						off[cell] = value;
-
-						if (value > 0){
-							if (i < area.top)
-								area.top = i;
-							else if (i >= area.bottom)
-								area.bottom = i+1;
-							if (j < area.left)
-								area.left = j;
-							else if (j >= area.right)
-								area.right = j+1;
-						}
+					value = sum >= count ? (sum / count) - 1 : 0;
+				}
+				off[cell] = value;
+				volume += value;
 
-						volume += value;
-					} else {
-						off[cell] = 0;
-					}
+				if (value > 0 || cur[cell] > 0) {
+					if (j < newLeft)    newLeft = j;
+					if (j > newRight)   newRight = j;
+					if (i < newTop)     newTop = i;
+					if (i > newBottom)  newBottom = i;
 				}
 			}
 		}
+
+		if (newRight < newLeft) {
+			area.setEmpty();
+		} else {
+			area.set( newLeft, newTop, newRight+1, newBottom+1 );
+		}
 	}
 
 	public void seed( Level level, int cell, int amount ) {
@@ -204,6 +223,7 @@ public class Blob extends Actor {
 
 		cur[cell] += amount;
 		volume += amount;
+		version++;
 
 		area.union(cell%level.width(), cell/level.width());
 	}
@@ -212,10 +232,12 @@ public class Blob extends Actor {
 		if (volume == 0) return;
 		volume -= cur[cell];
 		cur[cell] = 0;
+		version++;
 	}
 
 	public void fullyClear(){
 		volume = 0;
+		version++;
 		area.setEmpty();
 		cur = new int[Dungeon.level.length()];
 		off = new int[Dungeon.level.length()];
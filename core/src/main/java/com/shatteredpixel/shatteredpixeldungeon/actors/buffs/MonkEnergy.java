@@ -495,7 +495,7 @@ public class MonkEnergy extends Buff implements ActionIndicator.Action {
 
 				Ballistic dash = new Ballistic(hero.pos, target, Ballistic.PROJECTILE);
 
-				if (!dash.collisionPos.equals(target)
+				if (dash.collisionPos != target
 						|| (Dungeon.level.solid[target] && !Dungeon.level.passable[target])){
 					GLog.w(Messages.get(MeleeWeapon.class, "ability_target_range"));
 					return;
@@ -1684,7 +1684,7 @@ public class Hero extends Char {
 
 				//only do a simple check for mind visioned enemies, better performance
 				if ((!mindVisionEnemies.contains(m) && QuickSlotButton.autoAim(m) != -1)
-						|| (mindVisionEnemies.contains(m) && new Ballistic( pos, m.pos, Ballistic.PROJECTILE ).collisionPos == m.pos)) {
+						|| (mindVisionEnemies.contains(m) && Ballistic.trace( pos, m.pos, Ballistic.PROJECTILE ).collisionPos == m.pos)) {
 					if (target == null) {
 						target = m;
 					} else if (distance(target) > distance(m)) {
@@ -178,7 +178,7 @@ public class ElementalStrike extends ArmorAbility {
 			((MagicMissile)hero.sprite.parent.recycle( MagicMissile.class )).reset(
 					effectTypes.get(enchCls),
 					hero.sprite,
-					ray.path.get(ray.dist),
+					ray.collisionPos,
 					null
 			);
 		}
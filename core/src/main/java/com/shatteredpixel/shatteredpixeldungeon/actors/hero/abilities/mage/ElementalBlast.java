@@ -184,7 +184,7 @@ public class ElementalBlast extends ArmorAbility {
 			((MagicMissile)hero.sprite.parent.recycle( MagicMissile.class )).reset(
 					effectTypes.get(wandCls),
 					hero.sprite,
-					ray.path.get(ray.dist),
+					ray.collisionPos,
 					null
 			);
 		}
@@ -196,7 +196,7 @@ public class ElementalBlast extends ArmorAbility {
 		((MagicMissile)hero.sprite.parent.recycle( MagicMissile.class )).reset(
 				effectTypes.get(wandCls),
 				hero.sprite,
-				aim.path.get(Math.min(aoeSize / 2, aim.path.size()-1)),
+				aim.cell(Math.min(aoeSize / 2, aim.length()-1)),
 				new Callback() {
 					@Override
 					public void call() {
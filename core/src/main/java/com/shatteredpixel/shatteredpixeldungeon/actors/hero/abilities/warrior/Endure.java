@@ -123,8 +123,8 @@ public class Endure extends ArmorAbility {
 			damageBonus *= 1f + 0.15f*Dungeon.hero.pointsInTalent(Talent.SUSTAINED_RETRIBUTION);
 
 			int nearby = 0;
-			for (Char ch : Actor.chars()){
-				if (ch.alignment == Char.Alignment.ENEMY && Dungeon.level.distance(target.pos, ch.pos) <= 2){
+			for (Char ch : Actor.findChars(target.pos, 2)){
+				if (ch.alignment == Char.Alignment.ENEMY){
 					nearby ++;
 				}
 			}
@@ -92,7 +92,7 @@ public class Shockwave extends ArmorAbility {
 			((MagicMissile)hero.sprite.parent.recycle( MagicMissile.class )).reset(
 					MagicMissile.FORCE_CONE,
 					hero.sprite,
-					ray.path.get(ray.dist),
+					ray.collisionPos,
 					null
 			);
 		}
@@ -104,7 +104,7 @@ public class Shockwave extends ArmorAbility {
 		MagicMissile.boltFromChar(hero.sprite.parent,
 				MagicMissile.FORCE_CONE,
 				hero.sprite,
-				cone.coreRay.path.get(dist * 2 / 3),
+				cone.coreRay.cell(dist * 2 / 3),
 				new Callback() {
 					@Override
 					public void call() {
@@ -149,8 +149,8 @@ public class BeamingRay extends TargetedClericSpell {
 		ScrollOfTeleportation.appear(ally, telePos);
 
 		if (chTarget == null){
-			for (Char ch : Actor.chars()){
-				if (ch.alignment == Char.Alignment.ENEMY && Dungeon.level.distance(ch.pos, telePos) <= 4){
+			for (Char ch : Actor.findChars(telePos, 4)){
+				if (ch.alignment == Char.Alignment.ENEMY){
 					if (chTarget == null || Dungeon.level.trueDistance(chTarget.pos, ally.pos) < Dungeon.level.trueDistance(ch.pos,  ally.pos)) {
 						chTarget = ch;
 					}
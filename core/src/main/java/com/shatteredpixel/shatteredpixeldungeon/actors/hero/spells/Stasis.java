@@ -46,7 +46,7 @@ import com.watabou.utils.PathFinder.Neighbor;
 import com.watabou.utils.Random;
 
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.List;
 
 public class Stasis extends ClericSpell {
 
@@ -93,7 +93,7 @@ public class Stasis extends ClericSpell {
 		hero.sprite.zap(ally.pos);
 		MagicMissile.boltFromChar(hero.sprite.parent, MagicMissile.LIGHT_MISSILE, ally.sprite, hero.pos, null);
 
-		LinkedHashSet<Buff> buffs = ally.buffs();
+		List<Buff> buffs = ally.buffs();
 		Actor.remove(ally);
 		ally.sprite.killAndErase();
 		ally.sprite = null;
@@ -224,6 +224,11 @@ public class CrystalGuardian extends Mob{
 		}
 	}
 
+	@Override
+	protected boolean usesFlowField() {
+		return false;
+	}
+
 	@Override
 	public boolean[] modifyPassable(boolean[] passable) {
 		//if we are hunting, we can stomp through crystals, but prefer not to
@@ -65,6 +65,11 @@ public class CrystalWisp extends Mob{
 		}
 	}
 
+	@Override
+	protected boolean usesFlowField() {
+		return false;
+	}
+
 	@Override
 	public boolean[] modifyPassable(boolean[] passable) {
 		for (int i = 0; i < Dungeon.level.length(); i++){
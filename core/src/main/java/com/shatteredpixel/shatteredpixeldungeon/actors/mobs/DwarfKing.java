@@ -407,6 +407,7 @@ public class DwarfKing extends Mob {
 
 			Actor.add(new Pushing(this, pos, bestPos));
 			pos = bestPos;
+			Actor.updateOccupancy(this);
 
 			//find closest cell that's adjacent to enemy, place subject there
 			bestDist = Dungeon.level.trueDistance(enemy.pos, pos);
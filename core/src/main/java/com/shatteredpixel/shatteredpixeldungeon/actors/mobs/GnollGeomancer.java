@@ -441,6 +441,7 @@ public class GnollGeomancer extends Mob {
 
 		int oldpos = pos;
 		pos = dashPos;
+		Actor.updateOccupancy(this);
 		spend(TICK);
 		abilityCooldown = 1;
 		Actor.add(new Pushing(this, oldpos, pos));
@@ -85,6 +85,7 @@ import com.shatteredpixel.shatteredpixeldungeon.journal.Notes;
 import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
 import com.shatteredpixel.shatteredpixeldungeon.levels.features.Chasm;
 import com.shatteredpixel.shatteredpixeldungeon.levels.traps.Trap;
+import com.shatteredpixel.shatteredpixeldungeon.mechanics.FlowField;
 import com.shatteredpixel.shatteredpixeldungeon.messages.Messages;
 import com.shatteredpixel.shatteredpixeldungeon.plants.Swiftthistle;
 import com.shatteredpixel.shatteredpixeldungeon.scenes.GameScene;
@@ -507,6 +508,11 @@ public abstract class Mob extends Char {
 		return true;
 	}
 
+	//mobs which change their passable map in modifyPassable can't use shared flow fields
+	protected boolean usesFlowField(){
+		return true;
+	}
+
 	protected boolean getCloser( int target ) {
 		
 		if (rooted || target == pos || !Dungeon.level.insideMap(target)) {
@@ -598,13 +604,18 @@ public abstract class Mob extends Char {
 			//generate a new path
 			if (newPath) {
 				//If we aren't hunting, always take a full path
-				PathFinder.Path full = Dungeon.findPath(this, target, Dungeon.level.passable, fieldOfView, true);
 				if (state != HUNTING){
-					path = full;
+					path = Dungeon.findPath(this, target, Dungeon.level.passable, fieldOfView, true);
 				} else {
+					//hunting mobs usually share a target, so they share the terrain flood towards it
+					PathFinder.Path full = usesFlowField()
+							? FlowField.findPath(this, target, fieldOfView, true)
+							: Dungeon.findPath(this, target, Dungeon.level.passable, fieldOfView, true);
 					//otherwise, check if other characters are forcing us to take a very slow route
 					// and don't try to go around them yet in response, basically assume their blockage is temporary
-					PathFinder.Path ignoreChars = Dungeon.findPath(this, target, Dungeon.level.passable, fieldOfView, false);
+					PathFinder.Path ignoreChars = usesFlowField()
+							? FlowField.findPath(this, target, fieldOfView, false)
+							: Dungeon.findPath(this, target, Dungeon.level.passable, fieldOfView, false);
 					if (ignoreChars != null && (full == null || full.size() > 2*ignoreChars.size())){
 						//check if first cell of shorter path is valid. If it is, use new shorter path. Otherwise do nothing and wait.
 						path = ignoreChars;
@@ -24,14 +24,25 @@ package com.shatteredpixel.shatteredpixeldungeon.effects;
 import com.shatteredpixel.shatteredpixeldungeon.Dungeon;
 import com.shatteredpixel.shatteredpixeldungeon.actors.blobs.Blob;
 import com.shatteredpixel.shatteredpixeldungeon.tiles.DungeonTileMap;
+import com.watabou.noosa.Camera;
 import com.watabou.noosa.particles.Emitter;
-import com.watabou.utils.PointF;
 import com.watabou.utils.Random;
 import com.watabou.utils.RectF;
 
+import java.util.Arrays;
+
 public class BlobEmitter extends Emitter {
 	
 	private Blob blob;
+
+	//the blob's occupied cells as of its last change, so emitting doesn't scan its whole area
+	private int[] cells = new int[16];
+	private int cellCount = 0;
+
+	//state of the blob when cells was built
+	private int version = -1;
+	private int volume;
+	private int left, top, right, bottom;
 	
 	public BlobEmitter( Blob blob ) {
 		
@@ -52,20 +63,69 @@ public class BlobEmitter extends Emitter {
 
 		if (blob.area.isEmpty())
 			blob.setupArea();
+
+		refreshCells();
+
+		//particles outside of the view are never seen, with some margin for ones which drift into it
+		Camera c = camera();
+		if (c == null) {
+			return;
+		}
+		float minX = c.scroll.x - 2*DungeonTileMap.WIDTH;
+		float maxX = c.scroll.x + c.width + DungeonTileMap.WIDTH;
+		float minY = c.scroll.y - 2*DungeonTileMap.HEIGHT;
+		float maxY = c.scroll.y + c.height + DungeonTileMap.HEIGHT;
 		
 		int[] map = blob.cur;
+		boolean[] fov = Dungeon.level.heroFOV;
+		float[] positions = DungeonTileMap.cellPositions();
+
+		for (int i = 0; i < cellCount; i++) {
+			int cell = cells[i];
+			//cells can still be cleared without the blob changing version
+			if (map[cell] <= 0 || !(fov[cell] || blob.alwaysVisible)) {
+				continue;
+			}
+
+			float x = positions[2*cell];
+			float y = positions[2*cell + 1];
+			if (x < minX || x > maxX || y < minY || y > maxY) {
+				continue;
+			}
+
+			factory.emit(this, index,
+				x + Random.Float(bound.left, bound.right) * DungeonTileMap.WIDTH,
+				y + Random.Float(bound.top, bound.bottom) * DungeonTileMap.HEIGHT);
+		}
+	}
+
+	//rebuilds the cell list only once the blob has evolved or been seeded or cleared since the last build
+	private void refreshCells() {
+		if (version == blob.version() && volume == blob.volume
+				&& left == blob.area.left && top == blob.area.top
+				&& right == blob.area.right && bottom == blob.area.bottom) {
+			return;
+		}
+
+		version = blob.version();
+		volume = blob.volume;
+		left = blob.area.left;
+		top = blob.area.top;
+		right = blob.area.right;
+		bottom = blob.area.bottom;
+
+		int[] map = blob.cur;
+		int width = Dungeon.level.width();
+		cellCount = 0;
 
-		int cell;
-		for (int i = blob.area.left; i < blob.area.right; i++) {
-			for (int j = blob.area.top; j < blob.area.bottom; j++) {
-				cell = i + j*Dungeon.level.width();
-				if (cell < Dungeon.level.heroFOV.length
-						&& (Dungeon.level.heroFOV[cell] || blob.alwaysVisible)
-						&& map[cell] > 0) {
-					PointF point = DungeonTileMap.tileToWorld(cell);
-					factory.emit(this, index,
-						point.x + Random.Float(bound.left, bound.right) * DungeonTileMap.WIDTH,
-						point.y + Random.Float(bound.top, bound.bottom) * DungeonTileMap.HEIGHT);
+		for (int j = top; j < bottom; j++) {
+			int cell = left + j*width;
+			for (int i = left; i < right; i++, cell++) {
+				if (cell < map.length && map[cell] > 0) {
+					if (cellCount == cells.length) {
+						cells = Arrays.copyOf(cells, cellCount*2);
+					}
+					cells[cellCount++] = cell;
 				}
 			}
 		}
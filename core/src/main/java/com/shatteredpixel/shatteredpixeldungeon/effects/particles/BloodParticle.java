@@ -23,6 +23,7 @@ package com.shatteredpixel.shatteredpixeldungeon.effects.particles;
 
 import com.watabou.noosa.particles.Emitter;
 import com.watabou.noosa.particles.Emitter.Factory;
+import com.watabou.noosa.particles.Particles;
 import com.watabou.noosa.particles.PixelParticle;
 import com.watabou.utils.PointF;
 import com.watabou.utils.Random;
@@ -32,20 +33,34 @@ public class BloodParticle extends PixelParticle.Shrinking {
 	public static final Emitter.Factory FACTORY = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((BloodParticle)emitter.recycle( BloodParticle.class )).reset( x, y );
+			int i = emitter.particles().add( KIND, x, y, 0xCC0000, 4, 0.8f );
+			emitter.particles().accY[i] = +40;
 		}
 	};
 
 	public static final Emitter.Factory BURST = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((BloodParticle)emitter.recycle( BloodParticle.class )).resetBurst( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0xCC0000, 5, 0.8f );
+			//a burst starts part way through the usual lifespan
+			particles.left[i] = 0.5f;
+			particles.polar( i, Random.Float( PointF.PI2 ), Random.Float( 16, 32 ) );
+			particles.accY[i] = +40;
 		}
 		@Override
 		public boolean lightMode() {
 			return true;
 		}
 	};
+
+	private static final Particles.Kind KIND = new Particles.Kind() {
+		@Override
+		public void animate( Particles particles, int i, float p ) {
+			particles.size[i] = particles.baseSize[i] * p;
+			particles.am[i] = p > 0.6f ? (1 - p) * 2.5f : 1;
+		}
+	};
 	
 	public BloodParticle() {
 		super();
@@ -22,6 +22,7 @@
 package com.shatteredpixel.shatteredpixeldungeon.effects.particles;
 
 import com.watabou.noosa.particles.Emitter;
+import com.watabou.noosa.particles.Particles;
 import com.watabou.noosa.particles.PixelParticle;
 import com.watabou.utils.ColorMath;
 import com.watabou.utils.Random;
@@ -31,7 +32,10 @@ public class CorrosionParticle extends PixelParticle {
 	public static final Emitter.Factory MISSILE = new Emitter.Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((CorrosionParticle)emitter.recycle( CorrosionParticle.class )).resetMissile( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0xAAAAAA, 1, 0.6f );
+			particles.polar( i, -Random.Float( 3.1415926f ), Random.Float( 6 ) );
+			particles.accY[i] = +30;
 		}
 		@Override
 		public boolean lightMode() {
@@ -42,13 +46,24 @@ public class CorrosionParticle extends PixelParticle {
 	public static final Emitter.Factory SPLASH = new Emitter.Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((CorrosionParticle)emitter.recycle( CorrosionParticle.class )).resetSplash( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0xAAAAAA, 1, 0.6f );
+			particles.polar( i, Random.Float( 3.1415926f ), Random.Float( 10, 20 ) );
+			particles.accY[i] = +30;
 		}
 		@Override
 		public boolean lightMode() {
 			return false;
 		}
 	};
+
+	private static final Particles.Kind KIND = new Particles.Kind() {
+		@Override
+		public void animate( Particles particles, int i, float p ) {
+			particles.size[i] = 4 - (particles.am[i] = p) * 3;
+			particles.color[i] = ColorMath.interpolate( 0xFF8800, 0xAAAAAA, p );
+		}
+	};
 	
 	public CorrosionParticle() {
 		super();
@@ -23,6 +23,7 @@ package com.shatteredpixel.shatteredpixeldungeon.effects.particles;
 
 import com.watabou.noosa.particles.Emitter;
 import com.watabou.noosa.particles.Emitter.Factory;
+import com.watabou.noosa.particles.Particles;
 import com.watabou.noosa.particles.PixelParticle;
 
 public class ElmoParticle extends PixelParticle.Shrinking {
@@ -30,13 +31,22 @@ public class ElmoParticle extends PixelParticle.Shrinking {
 	public static final Emitter.Factory FACTORY = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((ElmoParticle)emitter.recycle( ElmoParticle.class )).reset( x, y );
+			int i = emitter.particles().add( KIND, x, y, 0x22EE66, 4, 0.6f );
+			emitter.particles().accY[i] = -80;
 		}
 		@Override
 		public boolean lightMode() {
 			return true;
 		}
 	};
+
+	private static final Particles.Kind KIND = new Particles.Kind() {
+		@Override
+		public void animate( Particles particles, int i, float p ) {
+			particles.size[i] = particles.baseSize[i] * p;
+			particles.am[i] = p > 0.8f ? (1 - p) * 5 : 1;
+		}
+	};
 	
 	public ElmoParticle() {
 		super();
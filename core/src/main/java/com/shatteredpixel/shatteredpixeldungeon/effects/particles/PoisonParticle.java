@@ -23,6 +23,7 @@ package com.shatteredpixel.shatteredpixeldungeon.effects.particles;
 
 import com.watabou.noosa.particles.Emitter;
 import com.watabou.noosa.particles.Emitter.Factory;
+import com.watabou.noosa.particles.Particles;
 import com.watabou.noosa.particles.PixelParticle;
 import com.watabou.utils.ColorMath;
 import com.watabou.utils.Random;
@@ -32,7 +33,10 @@ public class PoisonParticle extends PixelParticle {
 	public static final Emitter.Factory MISSILE = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((PoisonParticle)emitter.recycle( PoisonParticle.class )).resetMissile( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0x8844FF, 1, 0.6f );
+			particles.polar( i, -Random.Float( 3.1415926f ), Random.Float( 6 ) );
+			particles.accY[i] = +30;
 		}
 		@Override
 		public boolean lightMode() {
@@ -43,13 +47,24 @@ public class PoisonParticle extends PixelParticle {
 	public static final Emitter.Factory SPLASH = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((PoisonParticle)emitter.recycle( PoisonParticle.class )).resetSplash( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0x8844FF, 1, 0.6f );
+			particles.polar( i, Random.Float( 3.1415926f ), Random.Float( 10, 20 ) );
+			particles.accY[i] = +30;
 		}
 		@Override
 		public boolean lightMode() {
 			return true;
 		}
 	};
+
+	private static final Particles.Kind KIND = new Particles.Kind() {
+		@Override
+		public void animate( Particles particles, int i, float p ) {
+			particles.size[i] = 4 - (particles.am[i] = p) * 3;
+			particles.color[i] = ColorMath.interpolate( 0x00FF00, 0x8844FF, p );
+		}
+	};
 	
 	public PoisonParticle() {
 		super();
@@ -23,6 +23,7 @@ package com.shatteredpixel.shatteredpixeldungeon.effects.particles;
 
 import com.watabou.noosa.particles.Emitter;
 import com.watabou.noosa.particles.Emitter.Factory;
+import com.watabou.noosa.particles.Particles;
 import com.watabou.noosa.particles.PixelParticle;
 import com.watabou.utils.ColorMath;
 import com.watabou.utils.PointF;
@@ -33,21 +34,40 @@ public class ShadowParticle extends PixelParticle.Shrinking {
 	public static final Emitter.Factory MISSILE = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((ShadowParticle)emitter.recycle( ShadowParticle.class )).reset( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0x440044, 6, 0.5f );
+			particles.speedX[i] = Random.Float( -5, +5 );
+			particles.speedY[i] = Random.Float( -5, +5 );
 		}
 	};
 	
 	public static final Emitter.Factory CURSE = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((ShadowParticle)emitter.recycle( ShadowParticle.class )).resetCurse( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0x440044, 8, 0.5f );
+			particles.polar( i, Random.Float( PointF.PI2 ), Random.Float( 16, 32 ) );
+			particles.x[i] -= particles.speedX[i] * 0.5f;
+			particles.y[i] -= particles.speedY[i] * 0.5f;
 		}
 	};
 	
 	public static final Emitter.Factory UP = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((ShadowParticle)emitter.recycle( ShadowParticle.class )).resetUp( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0x440044, 6, 1f );
+			particles.speedX[i] = Random.Float( -8, +8 );
+			particles.speedY[i] = Random.Float( -32, -48 );
+		}
+	};
+
+	private static final Particles.Kind KIND = new Particles.Kind() {
+		@Override
+		public void animate( Particles particles, int i, float p ) {
+			particles.size[i] = particles.baseSize[i] * p;
+			particles.color[i] = ColorMath.interpolate( 0x000000, 0x440044, p );
+			particles.am[i] = p < 0.5f ? p * p * 4 : (1 - p) * 2;
 		}
 	};
 	
@@ -23,6 +23,7 @@ package com.shatteredpixel.shatteredpixeldungeon.effects.particles;
 
 import com.watabou.noosa.particles.Emitter;
 import com.watabou.noosa.particles.Emitter.Factory;
+import com.watabou.noosa.particles.Particles;
 import com.watabou.noosa.particles.PixelParticle;
 import com.watabou.utils.PointF;
 import com.watabou.utils.Random;
@@ -32,14 +33,30 @@ public class SmokeParticle extends PixelParticle {
 	public static final Factory FACTORY = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((SmokeParticle)emitter.recycle( SmokeParticle.class )).reset( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0x222222, 8, Random.Float( 0.6f, 1f ) );
+			particles.speedX[i] = Random.Float( -4, +4 );
+			particles.speedY[i] = Random.Float( -8, +8 );
+			particles.accY[i] = -40;
 		}
 	};
 	
 	public static final Factory SPEW = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((SmokeParticle)emitter.recycle( SmokeParticle.class )).resetSpew( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0x222222, 8, Random.Float( 0.6f, 1f ) );
+			particles.polar( i, Random.Float( PointF.PI*1.7f, PointF.PI*1.8f ), Random.Float( 30, 60 ) );
+			particles.accX[i] = -40;
+			particles.accY[i] = 40;
+		}
+	};
+
+	private static final Particles.Kind KIND = new Particles.Kind() {
+		@Override
+		public void animate( Particles particles, int i, float p ) {
+			particles.am[i] = p > 0.8f ? 2 - 2*p : p * 0.5f;
+			particles.size[i] = 16 - p * 8;
 		}
 	};
 	
@@ -25,6 +25,7 @@ import com.shatteredpixel.shatteredpixeldungeon.tiles.DungeonTileMap;
 import com.watabou.noosa.Visual;
 import com.watabou.noosa.particles.Emitter;
 import com.watabou.noosa.particles.Emitter.Factory;
+import com.watabou.noosa.particles.Particles;
 import com.watabou.noosa.particles.PixelParticle;
 import com.watabou.utils.Random;
 
@@ -33,7 +34,10 @@ public class SparkParticle extends PixelParticle {
 	public static final Emitter.Factory FACTORY = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((SparkParticle)emitter.recycle( SparkParticle.class )).reset( x, y );
+			Particles particles = emitter.particles();
+			int i = particles.add( KIND, x, y, 0xFFFFFF, 5, Random.Float( 0.5f, 1.0f ) );
+			particles.polar( i, -Random.Float( 3.1415926f ), Random.Float( 20, 40 ) );
+			particles.accY[i] = +50;
 		}
 		@Override
 		public boolean lightMode() {
@@ -44,13 +48,20 @@ public class SparkParticle extends PixelParticle {
 	public static final Emitter.Factory STATIC = new Factory() {
 		@Override
 		public void emit( Emitter emitter, int index, float x, float y ) {
-			((SparkParticle)emitter.recycle( SparkParticle.class )).resetStatic( x, y );
+			emitter.particles().add( KIND, x, y, 0xFFFFFF, 5, Random.Float( 0.25f, 0.5f ) );
 		}
 		@Override
 		public boolean lightMode() {
 			return true;
 		}
 	};
+
+	private static final Particles.Kind KIND = new Particles.Kind() {
+		@Override
+		public void animate( Particles particles, int i, float p ) {
+			particles.size[i] = Random.Float( particles.baseSize[i] * p );
+		}
+	};
 	
 	public SparkParticle() {
 		super();
@@ -629,7 +629,7 @@ public class Item implements Bundlable {
 	}
 
 	public int throwPos( Hero user, int dst){
-		return new Ballistic( user.pos, dst, Ballistic.PROJECTILE ).collisionPos;
+		return Ballistic.trace( user.pos, dst, Ballistic.PROJECTILE ).collisionPos;
 	}
 
 	public void throwSound(){
@@ -240,6 +240,7 @@ public class LloydsBeacon extends Artifact {
 										} else  {
 
 											ch.pos = pos;
+											Actor.updateOccupancy(ch);
 											if (ch instanceof Mob && ((Mob) ch).state == ((Mob) ch).HUNTING){
 												((Mob) ch).state = ((Mob) ch).WANDERING;
 											}
@@ -482,6 +482,7 @@ public class SkeletonKey extends Artifact {
 
 			int cell;
 			boolean cellEnded = false;
+			boolean losChanged = false;
 
 			Level l = Dungeon.level;
 			for (int i = area.left; i < area.right; i++){
@@ -498,14 +499,14 @@ public class SkeletonKey extends Artifact {
 
 					volume += off[cell];
 
-					l.losBlocking[cell] = off[cell] > 0 || (Terrain.flags[l.map[cell]] & Terrain.LOS_BLOCKING) != 0;
-					l.solid[cell] = off[cell] > 0 || (Terrain.flags[l.map[cell]] & Terrain.SOLID) != 0;
-					l.passable[cell] = off[cell] == 0 && (Terrain.flags[l.map[cell]] & Terrain.PASSABLE) != 0;
-					l.avoid[cell] = off[cell] == 0 && (Terrain.flags[l.map[cell]] & Terrain.AVOID) != 0;
-					l.updateOpenSpace(cell);
+					losChanged |= updateFlags(l, cell, off[cell]);
 				}
 			}
 
+			if (losChanged){
+				l.losBlockingChanged();
+			}
+
 			if (cellEnded){
 				Dungeon.observe();
 			}
@@ -514,11 +515,9 @@ public class SkeletonKey extends Artifact {
 		@Override
 		public void seed(Level level, int cell, int amount) {
 			super.seed(level, cell, amount);
-			level.losBlocking[cell] = cur[cell] > 0 || (Terrain.flags[level.map[cell]] & Terrain.LOS_BLOCKING) != 0;
-			level.solid[cell] = cur[cell] > 0 || (Terrain.flags[level.map[cell]] & Terrain.SOLID) != 0;
-			level.passable[cell] = cur[cell] == 0 && (Terrain.flags[level.map[cell]] & Terrain.PASSABLE) != 0;
-			level.avoid[cell] = cur[cell] == 0 && (Terrain.flags[level.map[cell]] & Terrain.AVOID) != 0;
-			level.updateOpenSpace(cell);
+			if (updateFlags(level, cell, cur[cell])){
+				level.losBlockingChanged();
+			}
 		}
 
 		@Override
@@ -526,11 +525,29 @@ public class SkeletonKey extends Artifact {
 			super.clear(cell);
 			if (cur == null) return;
 			Level l = Dungeon.level;
-			l.losBlocking[cell] = cur[cell] > 0 || (Terrain.flags[l.map[cell]] & Terrain.LOS_BLOCKING) != 0;
-			l.solid[cell] = cur[cell] > 0 || (Terrain.flags[l.map[cell]] & Terrain.SOLID) != 0;
-			l.passable[cell] = cur[cell] == 0 && (Terrain.flags[l.map[cell]] & Terrain.PASSABLE) != 0;
-			l.avoid[cell] = cur[cell] == 0 && (Terrain.flags[l.map[cell]] & Terrain.AVOID) != 0;
-			l.updateOpenSpace(cell);
+			if (updateFlags(l, cell, cur[cell])){
+				l.losBlockingChanged();
+			}
+		}
+
+		//sets the terrain flags of a cell for the wall's amount there, returns whether losBlocking changed.
+		//the wall is re-evolved every turn, so the cached pathing and vision data is only dropped on a change
+		private static boolean updateFlags(Level l, int cell, int amount){
+			int flags = Terrain.flags[l.map[cell]];
+			boolean losBlocking = amount > 0 || (flags & Terrain.LOS_BLOCKING) != 0;
+			boolean solid = amount > 0 || (flags & Terrain.SOLID) != 0;
+			boolean passable = amount == 0 && (flags & Terrain.PASSABLE) != 0;
+			boolean avoid = amount == 0 && (flags & Terrain.AVOID) != 0;
+
+			boolean losChanged = l.losBlocking[cell] != losBlocking;
+			if (losChanged || l.solid[cell] != solid || l.passable[cell] != passable || l.avoid[cell] != avoid){
+				l.losBlocking[cell] = losBlocking;
+				l.solid[cell] = solid;
+				l.passable[cell] = passable;
+				l.avoid[cell] = avoid;
+				l.updateOpenSpace(cell);
+			}
+			return losChanged;
 		}
 
 		@Override
@@ -152,9 +152,9 @@ public class TalismanOfForesight extends Artifact {
 				if (dist >= 3 && dist > maxDist()){
 					Ballistic trajectory = new Ballistic(curUser.pos, target, Ballistic.STOP_TARGET);
 					int i = 0;
-					while (i < trajectory.path.size()
-							&& Dungeon.level.trueDistance(curUser.pos, trajectory.path.get(i)) <= maxDist()){
-						target = trajectory.path.get(i);
+					while (i < trajectory.length()
+							&& Dungeon.level.trueDistance(curUser.pos, trajectory.cell(i)) <= maxDist()){
+						target = trajectory.cell(i);
 						i++;
 					}
 					dist = Dungeon.level.trueDistance(curUser.pos, target);
@@ -146,7 +146,7 @@ public class PotionOfDragonsBreath extends ExoticPotion {
 							((MagicMissile)curUser.sprite.parent.recycle( MagicMissile.class )).reset(
 									MagicMissile.FIRE_CONE,
 									curUser.sprite,
-									ray.path.get(ray.dist),
+									ray.collisionPos,
 									null
 							);
 						}
@@ -154,7 +154,7 @@ public class PotionOfDragonsBreath extends ExoticPotion {
 						MagicMissile.boltFromChar(curUser.sprite.parent,
 								MagicMissile.FIRE_CONE,
 								curUser.sprite,
-								bolt.path.get(dist / 2),
+								bolt.cell(dist / 2),
 								new Callback() {
 									@Override
 									public void call() {
@@ -860,7 +860,7 @@ public class CursedWand {
 				((MagicMissile)user.sprite.parent.recycle( MagicMissile.class )).reset(
 						MagicMissile.RAINBOW_CONE,
 						user.sprite,
-						ray.path.get(ray.dist),
+						ray.collisionPos,
 						null
 				);
 			}
@@ -869,7 +869,7 @@ public class CursedWand {
 			MagicMissile.boltFromChar( user.sprite.parent,
 					MagicMissile.RAINBOW_CONE,
 					user.sprite,
-					longestRay.path.get(longestRay.dist/2),
+					longestRay.cell(longestRay.dist/2),
 					callback );
 			Sample.INSTANCE.play( Assets.Sounds.ZAP );
 		}
@@ -129,9 +129,9 @@ public abstract class Wand extends Item {
 	@Override
 	public int targetingPos(Hero user, int dst) {
 		if (cursed && cursedKnown){
-			return new Ballistic(user.pos, dst, Ballistic.MAGIC_BOLT).collisionPos;
+			return Ballistic.trace(user.pos, dst, Ballistic.MAGIC_BOLT).collisionPos;
 		} else {
-			return new Ballistic(user.pos, dst, collisionProperties).collisionPos;
+			return Ballistic.trace(user.pos, dst, collisionProperties).collisionPos;
 		}
 	}
 
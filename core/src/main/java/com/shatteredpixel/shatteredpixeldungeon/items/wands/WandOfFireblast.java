@@ -229,7 +229,7 @@ public class WandOfFireblast extends DamageWand {
 			((MagicMissile)curUser.sprite.parent.recycle( MagicMissile.class )).reset(
 					MagicMissile.FIRE_CONE,
 					curUser.sprite,
-					ray.path.get(ray.dist),
+					ray.collisionPos,
 					null
 			);
 		}
@@ -238,7 +238,7 @@ public class WandOfFireblast extends DamageWand {
 		MagicMissile.boltFromChar( curUser.sprite.parent,
 				MagicMissile.FIRE_CONE,
 				curUser.sprite,
-				longestRay.path.get(longestRay.dist/2),
+				longestRay.cell(longestRay.dist/2),
 				callback );
 		Sample.INSTANCE.play( Assets.Sounds.ZAP );
 		Sample.INSTANCE.play( Assets.Sounds.BURNING );
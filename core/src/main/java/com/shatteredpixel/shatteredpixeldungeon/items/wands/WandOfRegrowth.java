@@ -133,8 +133,8 @@ public class WandOfRegrowth extends Wand {
 				l.pos = target;
 				GameScene.add(l);
 			} else {
-				for (int i = bolt.path.size()-1; i >= 0; i--){
-					int c = bolt.path.get(i);
+				for (int i = bolt.length()-1; i >= 0; i--){
+					int c = bolt.cell(i);
 					if (cells.contains(c) && Actor.findChar(c) == null){
 						cells.remove((Integer)c);
 						l.pos = c;
@@ -146,7 +146,8 @@ public class WandOfRegrowth extends Wand {
 		}
 
 		//places grass along center of cone
-		for (int cell : bolt.path){
+		for (int i = 0; i < bolt.length(); i++){
+			int cell = bolt.cell(i);
 			if (grassToPlace > 0 && cells.contains(cell)){
 				if (Random.Float() > furrowedChance) {
 					Level.set(cell, Terrain.HIGH_GRASS);
@@ -174,7 +175,7 @@ public class WandOfRegrowth extends Wand {
 		}
 
 		for (int cell : cells){
-			if (grassToPlace <= 0 || bolt.path.contains(cell)) break;
+			if (grassToPlace <= 0 || bolt.indexOf(cell) != -1) break;
 
 			if (Dungeon.level.map[cell] == Terrain.HIGH_GRASS) continue;
 
@@ -260,7 +261,7 @@ public class WandOfRegrowth extends Wand {
 			((MagicMissile)curUser.sprite.parent.recycle( MagicMissile.class )).reset(
 					MagicMissile.FOLIAGE_CONE,
 					curUser.sprite,
-					ray.path.get(ray.dist),
+					ray.collisionPos,
 					null
 			);
 		}
@@ -269,7 +270,7 @@ public class WandOfRegrowth extends Wand {
 		MagicMissile.boltFromChar( curUser.sprite.parent,
 				MagicMissile.FOLIAGE_CONE,
 				curUser.sprite,
-				longestRay.path.get(longestRay.dist/2),
+				longestRay.cell(longestRay.dist/2),
 				callback );
 		Sample.INSTANCE.play( Assets.Sounds.ZAP );
 	}
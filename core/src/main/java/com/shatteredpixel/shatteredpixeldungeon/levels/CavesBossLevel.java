@@ -316,6 +316,7 @@ public class CavesBossLevel extends Level {
 				n = entrance + neighbors( Neighbor.NEIGHBORS_6, entrance )[Random.Int( 6 )];
 			} while (!Dungeon.level.passable[n]);
 			ch.pos = n;
+			Actor.updateOccupancy(ch);
 			ch.sprite.place(n);
 		}
 
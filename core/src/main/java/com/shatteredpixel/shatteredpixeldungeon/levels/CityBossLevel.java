@@ -53,7 +53,7 @@ import com.watabou.utils.Rect;
 import com.watabou.utils.PathFinder.Neighbor;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.List;
 
 public class CityBossLevel extends Level {
 
@@ -225,7 +225,7 @@ public class CityBossLevel extends Level {
 	//returns a random pedestal that doesn't already have a summon inbound on it
 	public int getSummoningPos(){
 		Mob king = getKing();
-		HashSet<DwarfKing.Summoning> summons = king.buffs(DwarfKing.Summoning.class);
+		List<DwarfKing.Summoning> summons = king.buffs(DwarfKing.Summoning.class);
 		ArrayList<Integer> positions = new ArrayList<>();
 		for (int pedestal : pedestals) {
 			boolean clear = true;
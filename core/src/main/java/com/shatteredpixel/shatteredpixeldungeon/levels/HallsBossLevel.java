@@ -278,6 +278,7 @@ public class HallsBossLevel extends Level {
 			} else {
 				ch.pos = boss.pos+2*width;
 			}
+			Actor.updateOccupancy(ch);
 			Actor.add(new Pushing(ch, boss.pos, ch.pos));
 		}
 
@@ -92,6 +92,7 @@ import com.shatteredpixel.shatteredpixeldungeon.levels.features.HighGrass;
 import com.shatteredpixel.shatteredpixeldungeon.levels.features.LevelTransition;
 import com.shatteredpixel.shatteredpixeldungeon.levels.painters.Painter;
 import com.shatteredpixel.shatteredpixeldungeon.levels.traps.Trap;
+import com.shatteredpixel.shatteredpixeldungeon.mechanics.FieldOfViewCache;
 import com.shatteredpixel.shatteredpixeldungeon.mechanics.ShadowCaster;
 import com.shatteredpixel.shatteredpixeldungeon.messages.Messages;
 import com.shatteredpixel.shatteredpixeldungeon.plants.Plant;
@@ -107,6 +108,7 @@ import com.watabou.noosa.audio.Sample;
 import com.watabou.utils.BArray;
 import com.watabou.utils.Bundlable;
 import com.watabou.utils.Bundle;
+import com.watabou.utils.CellBitSet;
 import com.watabou.utils.GameMath;
 import com.watabou.utils.HexMath;
 import com.watabou.utils.PathFinder;
@@ -170,6 +172,19 @@ public abstract class Level implements Bundlable {
 	public boolean[] pit;
 
 	public boolean[] openSpace;
+
+	//packed copies of the maps pathing is built from, kept in sync with the boolean[] maps above.
+	//Code writing those maps directly must call passableChanged(), see below
+	public CellBitSet passableBits;
+	public CellBitSet avoidBits;
+	public CellBitSet openSpaceBits;
+
+	private int passableVersion = 0;
+
+	//as above for losBlocking, which mob fields of view are cached by (see FieldOfViewCache).
+	//Code writing losBlocking directly during play must call losBlockingChanged()
+	private int losBlockingVersion = 0;
+	private final FieldOfViewCache fovCache = new FieldOfViewCache();
 	
 	public Feeling feeling = Feeling.NONE;
 	
@@ -178,6 +193,11 @@ public abstract class Level implements Bundlable {
 
 	public ArrayList<LevelTransition> transitions;
 
+	//how often create() had to call build() again, and how often the room builder gave up.
+	//Only counted for reports from generation tools, not saved
+	public int buildRetries;
+	public int builderFailures;
+
 	//when a boss level has become locked.
 	public boolean locked = false;
 	
@@ -294,6 +314,7 @@ public abstract class Level implements Bundlable {
 			}
 		}
 		
+		boolean built;
 		do {
 			width = height = length = 0;
 
@@ -307,7 +328,9 @@ public abstract class Level implements Bundlable {
 			customTiles = new ArrayList<>();
 			customWalls = new ArrayList<>();
 			
-		} while (!build());
+			built = build();
+			if (!built) buildRetries++;
+		} while (!built);
 		
 		buildFlagMaps();
 		cleanWalls();
@@ -342,6 +365,10 @@ public abstract class Level implements Bundlable {
 		pit			= new boolean[length];
 
 		openSpace   = new boolean[length];
+
+		passableBits    = new CellBitSet(length);
+		avoidBits       = new CellBitSet(length);
+		openSpaceBits   = new CellBitSet(length);
 		
 		PathFinder.setMapSize(w, h);
 	}
@@ -845,6 +872,7 @@ public abstract class Level implements Bundlable {
 		for (Blob b : blobs.values()){
 			b.onBuildFlagMaps(this);
 		}
+		losBlockingVersion++;
 		
 		int lastRow = length() - width();
 		for (int i=0; i < width(); i++) {
@@ -867,13 +895,49 @@ public abstract class Level implements Bundlable {
 			setOpenSpace( this, i );
 		}
 
+		passableChanged();
 	}
 
 	//updates open space both on the cell itself and adjacent cells
 	public void updateOpenSpace(int cell){
 		for (int i : this.neighbors( Neighbor.NEIGHBORS_7, cell)) {
-			setOpenSpace( this, i );
+			setOpenSpace( this, cell + i );
+			syncFlagBits( cell + i );
 		}
+		passableVersion++;
+	}
+
+	//should be called whenever passable, avoid or openSpace change outside of set() and buildFlagMaps()
+	//so that the packed maps and cached pathing data (see FlowField) get updated
+	public void passableChanged(){
+		passableBits.fromArray( passable );
+		avoidBits.fromArray( avoid );
+		openSpaceBits.fromArray( openSpace );
+		passableVersion++;
+	}
+
+	//as above, when only a single cell has changed
+	public void passableChanged( int cell ){
+		syncFlagBits( cell );
+		passableVersion++;
+	}
+
+	private void syncFlagBits( int cell ){
+		passableBits.set( cell, passable[cell] );
+		avoidBits.set( cell, avoid[cell] );
+		openSpaceBits.set( cell, openSpace[cell] );
+	}
+
+	public int passableVersion(){
+		return passableVersion;
+	}
+
+	public void losBlockingChanged(){
+		losBlockingVersion++;
+	}
+
+	public int losBlockingVersion(){
+		return losBlockingVersion;
 	}
 
 	public void destroy( int pos ) {
@@ -925,6 +989,7 @@ public abstract class Level implements Bundlable {
 		int flags = Terrain.flags[terrain];
 		level.passable[cell]		= (flags & Terrain.PASSABLE) != 0;
 		level.losBlocking[cell]		= (flags & Terrain.LOS_BLOCKING) != 0;
+		level.losBlockingVersion++;
 		level.flammable[cell]		= (flags & Terrain.FLAMMABLE) != 0;
 		level.secret[cell]			= (flags & Terrain.SECRET) != 0;
 		level.solid[cell]			= (flags & Terrain.SOLID) != 0;
@@ -939,6 +1004,7 @@ public abstract class Level implements Bundlable {
 		}
 
 		setOpenSpace( level, cell );
+		level.passableChanged( cell );
 	}
 
 	private static void setOpenSpace( Level level, int cell )
@@ -1119,6 +1185,8 @@ public abstract class Level implements Bundlable {
 	}
 	
 	public void occupyCell( Char ch ){
+		Actor.updateOccupancy( ch );
+
 		if (!ch.isImmune(Web.class) && Blob.volumeAt(ch.pos, Web.class) > 0){
 			blobs.get(Web.class).clear(ch.pos);
 			Web.affectChar( ch );
@@ -1279,55 +1347,65 @@ public abstract class Level implements Bundlable {
 		boolean sighted = c.buff( Blindness.class ) == null && c.buff( Shadows.class ) == null
 						&& c.isAlive();
 		if (sighted) {
-			boolean[] blocking = null;
+			// grass is see-through by some specific entities, but not during the fungi quest
+			boolean seeThroughGrass = (!(Dungeon.level instanceof  MiningLevel) || Blacksmith.Quest.Type() != Blacksmith.Quest.FUNGI)
+					&& ((c instanceof Hero && ((Hero) c).subClass == HeroSubClass.WARDEN)
+						|| c instanceof YogFist.SoiledFist || c instanceof GnollGeomancer);
+
+			//allies and specific enemies can see through shrouding fog
+			boolean smoky = (c.alignment != Char.Alignment.ALLY && !(c instanceof GnollGeomancer))
+					&& Dungeon.level.blobs.containsKey(SmokeScreen.class)
+					&& Dungeon.level.blobs.get(SmokeScreen.class).volume > 0;
 
-			if (modifiableBlocking == null || modifiableBlocking.length != Dungeon.level.losBlocking.length){
-				modifiableBlocking = new boolean[Dungeon.level.losBlocking.length];
+			float viewDist = c.viewDistance;
+			if (c instanceof Hero){
+				viewDist *= 1f + 0.25f*((Hero) c).pointsInTalent(Talent.FARSIGHT);
+				viewDist *= EyeOfNewt.visionRangeMultiplier();
 			}
+			int distance = Math.round(viewDist);
 
-			// grass is see-through by some specific entities, but not during the fungi quest
-			if (!(Dungeon.level instanceof  MiningLevel) || Blacksmith.Quest.Type() != Blacksmith.Quest.FUNGI){
-				if ((c instanceof Hero && ((Hero) c).subClass == HeroSubClass.WARDEN)
-						|| c instanceof YogFist.SoiledFist || c instanceof GnollGeomancer) {
-					if (blocking == null) {
-						System.arraycopy(Dungeon.level.losBlocking, 0, modifiableBlocking, 0, modifiableBlocking.length);
-						blocking = modifiableBlocking;
-					}
+			//the hero's view is only cast when it is needed anyway, mobs may cast from the same spot every turn
+			boolean cached = !(c instanceof Hero);
+			if (!cached || !Dungeon.level.fovCache.get( Dungeon.level, c.pos, distance, seeThroughGrass, smoky, fieldOfView )) {
+				boolean[] blocking = null;
+
+				if (modifiableBlocking == null || modifiableBlocking.length != Dungeon.level.losBlocking.length){
+					modifiableBlocking = new boolean[Dungeon.level.losBlocking.length];
+				}
+
+				if (seeThroughGrass) {
+					System.arraycopy(Dungeon.level.losBlocking, 0, modifiableBlocking, 0, modifiableBlocking.length);
+					blocking = modifiableBlocking;
 					for (int i = 0; i < blocking.length; i++) {
 						if (blocking[i] && (Dungeon.level.map[i] == Terrain.HIGH_GRASS || Dungeon.level.map[i] == Terrain.FURROWED_GRASS)) {
 							blocking[i] = false;
 						}
 					}
 				}
-			}
 
-			//allies and specific enemies can see through shrouding fog
-			if ((c.alignment != Char.Alignment.ALLY && !(c instanceof GnollGeomancer))
-					&& Dungeon.level.blobs.containsKey(SmokeScreen.class)
-					&& Dungeon.level.blobs.get(SmokeScreen.class).volume > 0) {
-				if (blocking == null) {
-					System.arraycopy(Dungeon.level.losBlocking, 0, modifiableBlocking, 0, modifiableBlocking.length);
-					blocking = modifiableBlocking;
-				}
-				Blob s = Dungeon.level.blobs.get(SmokeScreen.class);
-				for (int i = 0; i < blocking.length; i++){
-					if (!blocking[i] && s.cur[i] > 0){
-						blocking[i] = true;
+				if (smoky) {
+					if (blocking == null) {
+						System.arraycopy(Dungeon.level.losBlocking, 0, modifiableBlocking, 0, modifiableBlocking.length);
+						blocking = modifiableBlocking;
+					}
+					Blob s = Dungeon.level.blobs.get(SmokeScreen.class);
+					for (int i = 0; i < blocking.length; i++){
+						if (!blocking[i] && s.cur[i] > 0){
+							blocking[i] = true;
+						}
 					}
 				}
-			}
 
-			if (blocking == null){
-				blocking = Dungeon.level.losBlocking;
-			}
+				if (blocking == null){
+					blocking = Dungeon.level.losBlocking;
+				}
 
-			float viewDist = c.viewDistance;
-			if (c instanceof Hero){
-				viewDist *= 1f + 0.25f*((Hero) c).pointsInTalent(Talent.FARSIGHT);
-				viewDist *= EyeOfNewt.visionRangeMultiplier();
+				ShadowCaster.castShadow( cx, cy, width(), fieldOfView, blocking, distance );
+
+				if (cached) {
+					Dungeon.level.fovCache.put( Dungeon.level, c.pos, distance, seeThroughGrass, smoky, fieldOfView );
+				}
 			}
-			
-			ShadowCaster.castShadow( cx, cy, width(), fieldOfView, blocking, Math.round(viewDist) );
 		} else {
 			BArray.setFalse(fieldOfView);
 		}
@@ -23,122 +23,262 @@ package com.shatteredpixel.shatteredpixeldungeon.levels;
 
 import com.watabou.utils.Random;
 
+import java.util.Arrays;
+
 public class Patch {
 
+	//bits of columns whose x is even, the hexagonal grid is "odd-q" so they are offset by half a cell
+	private static final long EVEN_BITS = 0x5555555555555555L;
+
+	//working state, reused between calls. Each row is packed into words of 64 columns
+	private static long[] cur = new long[0];
+	private static long[] off = new long[0];
+	private static int[] candidates = new int[0];
+
+	private static int w, h, words;
+	private static long lastWordMask;
+	private static long evenColumns;
+
+	public static boolean[] generate( int w, int h, float fill, int clustering, boolean forceFillRate ) {
+		return generate( w, h, fill, clustering, forceFillRate, 0 );
+	}
+
 	/*
 	 * fill is the initial seeded fill rate when creating a random boolean array.
 	 *
 	 * clustering is the number of clustering passes done on then array, to create patches.
-	 * each clustering pass is basically a 3x3 mask filter but with rounding to true or false
+	 * each clustering pass is a majority vote of a cell and its 6 hexagonal neighbours.
 	 * high clustering values will produce more concentrated patches,
 	 * but any amount of clustering will rapidly push fill rates towards 1.0f or 0.0f
 	 * The closer the fill rate is to 0.5f the weaker this pushing will be.
 	 *
 	 * forceFillRate adjusts the algorithm to force fill rate to be consistent despite clustering.
 	 * this is achieved by firstly pulling the initial fill value towards 0.5f
-	 * and then by manually filling in or emptying cells after clustering, until the fill rate is
-	 * achieved. This is tracked with the fillDiff variable.
+	 * and then by filling in or emptying cells on the edges of patches after clustering,
+	 * until the fill rate is achieved. This is tracked with the fillDiff variable.
+	 *
+	 * firstColumn is the level column of the patch's left edge. Only its parity matters,
+	 * it decides which way each column of the patch is offset.
 	*/
-	public static boolean[] generate( int w, int h, float fill, int clustering, boolean forceFillRate ) {
-		
-		int length = w * h;
+	public static synchronized boolean[] generate( int w, int h, float fill, int clustering, boolean forceFillRate, int firstColumn ) {
 
-		boolean[] cur = new boolean[length];
-		boolean[] off = new boolean[length];
+		int length = w * h;
+		setSize( w, h, firstColumn );
 
-		int fillDiff = -Math.round(length * fill);
+		int target = Math.round(length * fill);
+		int fillDiff = -target;
 
 		if (forceFillRate && clustering > 0) {
 			fill += (0.5f - fill) * 0.5f;
 		}
 
-		for (int i=0; i < length; i++) {
-			off[i] = Random.Float() < fill;
-			if (off[i]) fillDiff++;
+		for (int y=0; y < h; y++) {
+			for (int x=0; x < w; x++) {
+				if (Random.Float() < fill) {
+					off[y * words + (x >>> 6)] |= 1L << x;
+					fillDiff++;
+				}
+			}
 		}
-		
-		for (int i=0; i < clustering; i++) {
 
-			for (int y=0; y < h; y++) {
-				for (int x=0; x < w; x++) {
-					
-					int pos = x + y * w;
-					int count = 0;
-					int neighbors = 0;
-
-					if (y > 0) {
-						if (x > 0){
-							if (off[pos - w - 1]) count++;
-							neighbors++;
-						}
-						if (off[pos - w]) count++;
-						neighbors++;
-						if (x < (w - 1)){
-							if (off[pos - w + 1]) count++;
-							neighbors++;
-						}
-					}
-
-					if (x > 0){
-						if (off[pos - 1]) count++;
-						neighbors++;
-					}
-					if (off[pos]) count++;
-					neighbors++;
-					if (x < (w-1)){
-						if (off[pos + 1]) count++;
-						neighbors++;
-					}
-
-					if (y < (h-1)) {
-						if (x > 0){
-							if (off[pos + w - 1]) count++;
-							neighbors++;
-						}
-						if (off[pos + w]) count++;
-						neighbors++;
-						if (x < (w-1)){
-							if (off[pos + w + 1]) count++;
-							neighbors++;
-						}
-					}
-
-					cur[pos] = 2*count >= neighbors;
-					if (cur[pos] != off[pos]) fillDiff += cur[pos] ? +1 : -1;
+		for (int i=0; i < clustering; i++) {
+			cluster();
 
-				}
-			}
-			
-			boolean[] tmp = cur;
+			long[] tmp = cur;
 			cur = off;
 			off = tmp;
 		}
 
+		if (clustering > 0) {
+			fillDiff = -target;
+			for (int i=0; i < h * words; i++) {
+				fillDiff += Long.bitCount( off[i] );
+			}
+		}
+
 		//even if force fill rate is on, only do this if we have some kind of border
-		if (forceFillRate && Math.min(w, h) > 2) {
-			int[] neighbors = new int[]{-w - 1, -w, -w + 1, -1, 0, +1, +w - 1, +w, +w + 1};
+		if (forceFillRate && Math.min(w, h) > 2 && fillDiff != 0) {
 			boolean growing = fillDiff < 0;
+			int needed = Math.abs(fillDiff);
 
-			while (fillDiff != 0) {
-				int cell;
-				int tries = 0;
-
-				//random cell, not in the map's borders
-				// try length/10 times to find a cell we can grow from, and not start a new patch/hole
-				do {
-					cell = Random.Int(1, w - 1) + Random.Int(1, h - 1) * w;
-					tries++;
-				} while (off[cell] != growing && tries * 10 < length);
-
-				for (int i : neighbors) {
-					if (fillDiff != 0 && off[cell + i] != growing) {
-						off[cell + i] = growing;
-						fillDiff += growing ? +1 : -1;
-					}
-				}
+			//grow or shrink existing patches a layer at a time, so no new patch or hole is started.
+			//Each layer exposes a new edge, so this only runs out when the whole patch is filled or emptied
+			int edges;
+			while (needed > 0 && (edges = collectEdges( growing )) > 0) {
+				needed = flip( edges, needed, growing );
+			}
+			//only possible when there was nothing to grow from, e.g. clustering emptied the patch entirely
+			if (needed > 0) {
+				flip( collectAll( growing ), needed, growing );
+			}
+		}
+
+		boolean[] result = new boolean[length];
+		for (int y=0; y < h; y++) {
+			for (int x=0; x < w; x++) {
+				result[x + y * w] = get( off, x, y );
+			}
+		}
+		return result;
+	}
+
+	private static void setSize( int w, int h, int firstColumn ) {
+		Patch.w = w;
+		Patch.h = h;
+		words = (w + 63) >>> 6;
+		lastWordMask = (w & 63) == 0 ? -1L : (1L << w) - 1;
+		evenColumns = (firstColumn & 1) == 0 ? EVEN_BITS : ~EVEN_BITS;
+
+		if (cur.length < h * words) {
+			cur = new long[h * words];
+			off = new long[h * words];
+		} else {
+			Arrays.fill( off, 0, h * words, 0 );
+		}
+		if (candidates.length < w * h) {
+			candidates = new int[w * h];
+		}
+	}
+
+	//one clustering pass from off into cur
+	private static void cluster() {
+		for (int y=0; y < h; y++) {
+			for (int i=0; i < words; i++) {
+				long c = word( off, y, i, false );
+				long u = word( off, y - 1, i, false );
+				long d = word( off, y + 1, i, false );
+				long l = fromLeft( off, y, i, false );
+				long r = fromRight( off, y, i, false );
+				//even columns are higher than their neighbours, odd columns lower
+				long a = (fromLeft( off, y - 1, i, false ) & evenColumns) | (fromLeft( off, y + 1, i, false ) & ~evenColumns);
+				long b = (fromRight( off, y - 1, i, false ) & evenColumns) | (fromRight( off, y + 1, i, false ) & ~evenColumns);
+
+				//adds up the 7 cells of every column at once, a cell is set if 4 or more are
+				long ones1 = c ^ u ^ d;
+				long twos1 = (c & u) | (d & (c ^ u));
+				long ones2 = l ^ r ^ a;
+				long twos2 = (l & r) | (a & (l ^ r));
+				long twos3 = (ones1 & ones2) | (b & (ones1 ^ ones2));
+
+				long result = (twos1 & twos2) | (twos3 & (twos1 ^ twos2));
+				if (i == words - 1) result &= lastWordMask;
+				cur[y * words + i] = result;
 			}
 		}
-		
-		return off;
+
+		//cells on the border have fewer neighbours, those need half of what they have
+		for (int x=0; x < w; x++) {
+			clusterEdge( x, 0 );
+			if (h > 1) clusterEdge( x, h - 1 );
+		}
+		for (int y=1; y < h - 1; y++) {
+			clusterEdge( 0, y );
+			if (w > 1) clusterEdge( w - 1, y );
+		}
+	}
+
+	private static void clusterEdge( int x, int y ) {
+		int count = get( off, x, y ) ? 1 : 0;
+		int neighbors = 1;
+
+		int odd = isOdd( x ) ? 1 : 0;
+		for (int n=0; n < 6; n++) {
+			int nx = x + NEIGHBOR_X[n];
+			int ny = y + NEIGHBOR_Y[odd][n];
+			if (nx >= 0 && nx < w && ny >= 0 && ny < h) {
+				if (get( off, nx, ny )) count++;
+				neighbors++;
+			}
+		}
+
+		set( cur, x, y, 2*count >= neighbors );
+	}
+
+	private static final int[] NEIGHBOR_X = { 0, -1, +1, -1, +1, 0 };
+	private static final int[][] NEIGHBOR_Y = {
+			{ -1, -1, -1, 0, 0, +1 }, // even
+			{ -1, 0, 0, +1, +1, +1 }}; // odd
+
+	//cells which aren't growing but are next to one that is
+	private static int collectEdges( boolean growing ) {
+		int count = 0;
+		for (int y=0; y < h; y++) {
+			for (int i=0; i < words; i++) {
+				long near = word( off, y - 1, i, !growing )
+						| word( off, y + 1, i, !growing )
+						| fromLeft( off, y, i, !growing )
+						| fromRight( off, y, i, !growing )
+						| (fromLeft( off, y - 1, i, !growing ) & evenColumns) | (fromLeft( off, y + 1, i, !growing ) & ~evenColumns)
+						| (fromRight( off, y - 1, i, !growing ) & evenColumns) | (fromRight( off, y + 1, i, !growing ) & ~evenColumns);
+				count = collect( near & word( off, y, i, growing ), y, i, count );
+			}
+		}
+		return count;
+	}
+
+	private static int collectAll( boolean growing ) {
+		int count = 0;
+		for (int y=0; y < h; y++) {
+			for (int i=0; i < words; i++) {
+				count = collect( word( off, y, i, growing ), y, i, count );
+			}
+		}
+		return count;
+	}
+
+	private static int collect( long bits, int y, int i, int count ) {
+		while (bits != 0) {
+			int x = (i << 6) + Long.numberOfTrailingZeros( bits );
+			candidates[count++] = x + y * w;
+			bits &= bits - 1;
+		}
+		return count;
+	}
+
+	//flips randomly chosen candidates, returns how many more flips are still needed
+	private static int flip( int count, int needed, boolean growing ) {
+		int flips = Math.min( count, needed );
+		for (int i=0; i < flips; i++) {
+			int j = Random.Int( i, count );
+			int cell = candidates[j];
+			candidates[j] = candidates[i];
+			set( off, cell % w, cell / w, growing );
+		}
+		return needed - flips;
+	}
+
+	private static boolean isOdd( int x ) {
+		return ((1L << x) & evenColumns) == 0;
+	}
+
+	//the packed word i of row y, which is 0 outside of the patch.
+	//If inverted the unset cells within the patch are returned instead
+	private static long word( long[] rows, int y, int i, boolean inverted ) {
+		if (y < 0 || y >= h || i < 0 || i >= words) return 0;
+		long word = rows[y * words + i];
+		if (inverted) {
+			word = ~word;
+			if (i == words - 1) word &= lastWordMask;
+		}
+		return word;
+	}
+
+	//bit x of the result is column x-1
+	private static long fromLeft( long[] rows, int y, int i, boolean inverted ) {
+		return (word( rows, y, i, inverted ) << 1) | (word( rows, y, i - 1, inverted ) >>> 63);
+	}
+
+	//bit x of the result is column x+1
+	private static long fromRight( long[] rows, int y, int i, boolean inverted ) {
+		return (word( rows, y, i, inverted ) >>> 1) | (word( rows, y, i + 1, inverted ) << 63);
+	}
+
+	private static boolean get( long[] rows, int x, int y ) {
+		return (rows[y * words + (x >>> 6)] & (1L << x)) != 0;
+	}
+
+	private static void set( long[] rows, int x, int y, boolean value ) {
+		if (value) rows[y * words + (x >>> 6)] |= 1L << x;
+		else       rows[y * words + (x >>> 6)] &= ~(1L << x);
 	}
 }
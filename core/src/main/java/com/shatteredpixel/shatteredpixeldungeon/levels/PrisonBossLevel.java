@@ -506,11 +506,13 @@ public class PrisonBossLevel extends Level {
 				
 				Dungeon.hero.interrupt();
 				Dungeon.hero.pos = tenguCell.left+4 + (tenguCell.top+2)*width();
+				Actor.updateOccupancy(Dungeon.hero);
 				Dungeon.hero.sprite.interruptMotion();
 				Dungeon.hero.sprite.place(Dungeon.hero.pos);
 				Camera.main.snapTo(Dungeon.hero.sprite.center());
 				
 				tengu.pos = pointToCell(tenguCellCenter);
+				Actor.updateOccupancy(tengu);
 				tengu.sprite.place(tengu.pos);
 				
 				//remove all mobs, but preserve allies
@@ -528,6 +530,7 @@ public class PrisonBossLevel extends Level {
 					do{
 						m.pos = randomTenguCellPos();
 					} while (findMob(m.pos) != null || m.pos == Dungeon.hero.pos);
+					Actor.updateOccupancy(m);
 					if (m.sprite != null) m.sprite.place(m.pos);
 					mobs.add(m);
 				}
@@ -116,6 +116,7 @@ public abstract class RegularLevel extends Level {
 				r.connected.clear();
 			}
 			rooms = builder.build((ArrayList<Room>)initRooms.clone());
+			if (rooms == null) builderFailures++;
 		} while (rooms == null);
 		
 		return painter().paint(this, rooms);
@@ -38,7 +38,7 @@ public class SecretGardenRoom extends SecretRoom {
 		Painter.fill( level, this, Terrain.WALL );
 		Painter.fill( level, this, 1, Terrain.GRASS );
 		
-		boolean[] grass = Patch.generate(width()-2, height()-2, 0.5f, 0, true);
+		boolean[] grass = Patch.generate(width()-2, height()-2, 0.5f, 0, true, left+1);
 		for (int i=top + 1; i < bottom; i++) {
 			for (int j=left + 1; j < right; j++) {
 				if (grass[xyToPatchCoords(j, i)]) {
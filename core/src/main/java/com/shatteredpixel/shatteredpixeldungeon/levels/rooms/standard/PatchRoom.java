@@ -46,7 +46,7 @@ public abstract class PatchRoom extends StandardRoom {
 			PathFinder.setMapSize(width()-2, height()-2);
 			boolean valid;
 			do {
-				patch = Patch.generate(width()-2, height()-2, fill, clustering(), true);
+				patch = Patch.generate(width()-2, height()-2, fill, clustering(), true, left+1);
 				int startPoint = level.pointToCell(center());
 				for (Door door : connected.values()) {
 					if (door.x == left) {
@@ -85,7 +85,7 @@ public abstract class PatchRoom extends StandardRoom {
 			} while (!valid);
 			PathFinder.setMapSize(level.width(), level.height());
 		} else {
-			patch = Patch.generate(width()-2, height()-2, fill(), clustering(), true);
+			patch = Patch.generate(width()-2, height()-2, fill(), clustering(), true, left+1);
 		}
 		if (cleanEdges()){
 			cleanDiagonalEdges();
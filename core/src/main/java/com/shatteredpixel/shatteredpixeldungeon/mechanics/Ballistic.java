@@ -24,19 +24,36 @@ package com.shatteredpixel.shatteredpixeldungeon.mechanics;
 import com.shatteredpixel.shatteredpixeldungeon.Dungeon;
 import com.shatteredpixel.shatteredpixeldungeon.ShatteredPixelDungeon;
 import com.shatteredpixel.shatteredpixeldungeon.actors.Actor;
+import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
 public class Ballistic {
 
 	// note that the path is the FULL path of the projectile, including tiles after collision.
 	// make sure to generate a subPath for the common case of going source to collision.
-	public ArrayList<Integer> path = new ArrayList<>();
-	public Integer sourcePos = null;
-	public Integer collisionPos = null;
-	public Integer collisionProperties = null;
-	public Integer dist = 0;
+	public final List<Integer> path = new PathList();
+	//final, as trace() hands the same instance to several callers and matches cached traces on these
+	public final int sourcePos;
+	public final int collisionPos;
+	public final int collisionProperties;
+	public final int dist;
+
+	//the cells of the path, path is a read-only view of these
+	private int[] cells;
+	private int length;
+
+	//lines are traced into this, so each trace only allocates the cells it actually keeps
+	private static final ThreadLocal<int[]> scratch = new ThreadLocal<int[]>(){
+		@Override
+		protected int[] initialValue() {
+			return new int[64];
+		}
+	};
 
 	// parameters to specify the colliding cell
 	public static final int STOP_TARGET = 1;       // ballistic will stop at the target cell
@@ -50,123 +67,250 @@ public class Ballistic {
 
 	public static final int WONT_STOP =     0;
 
+	//recent traces, so repeated queries within a turn (e.g. auto-aim checking each visible enemy)
+	//don't trace the same line again. A trace depends on terrain, which the level versions,
+	//and on which cells of the path hold chars, which is checked again before a trace is reused.
+	private static final int CACHE_SIZE = 16;
+
+	private static final Ballistic[] cache = new Ballistic[CACHE_SIZE];
+	private static int nextSlot = 0;
+
+	private Level level;
+	private int version;
+	private float time;
+	private int target;
+	private boolean[] occupied;
+	private int checked;
+
 
 	public Ballistic( int from, int to, int params ){
 		sourcePos = from;
 		collisionProperties = params;
-		build(from, to,
+		int stop = build(from, to,
 				(params & STOP_TARGET) > 0,
 				(params & STOP_CHARS) > 0,
 				(params & STOP_SOLID) > 0,
 				(params & IGNORE_SOFT_SOLID) > 0);
 
-		if (collisionPos != null) {
-			dist = path.indexOf(collisionPos);
-		} else if (!path.isEmpty()) {
-			collisionPos = path.get(dist = path.size() - 1);
-		} else {
-			path.add(from);
-			collisionPos = from;
-			dist = 0;
+		if (stop == -1 && length > 0) {
+			stop = length - 1;
+		} else if (stop == -1) {
+			cells = new int[]{ from };
+			length = 1;
+			stop = 0;
 		}
+		dist = stop;
+		collisionPos = cells[stop];
 	}
 
-	private void build( int from, int to, boolean stopTarget, boolean stopChars, boolean stopTerrain, boolean ignoreSoftSolid ) {
-		int w = Dungeon.level.width();
-
-		int x0 = from % w;
-		int x1 = to % w;
-		int y0 = from / w;
-		int y1 = to / w;
-
-		int dx = x1 - x0;
-		int dy = y1 - y0;
+	//int access to the path, for callers which don't need the boxed list
+	public int cell( int index ){
+		return cells[index];
+	}
 
-		int stepX = dx > 0 ? +1 : -1;
-		int stepY = dy > 0 ? +1 : -1;
+	public int length(){
+		return length;
+	}
 
-		dx = Math.abs( dx );
-		dy = Math.abs( dy );
+	public int indexOf( int cell ){
+		for (int i = 0; i < length; i++) {
+			if (cells[i] == cell) return i;
+		}
+		return -1;
+	}
 
-		int stepA;
-		int stepB;
-		int dA;
-		int dB;
+	//same as the constructor, but may return a trace made earlier this turn.
+	//The result is shared, so it must not be modified
+	public static Ballistic trace( int from, int to, int params ){
+		Level level = Dungeon.level;
+		float now = Actor.now();
+
+		int slot = -1;
+		Ballistic cached = null;
+		synchronized (cache) {
+			for (int i = 0; i < CACHE_SIZE; i++) {
+				Ballistic b = cache[i];
+				if (b != null && b.level == level && b.version == level.passableVersion() && b.time == now
+						&& b.sourcePos == from && b.target == to && b.collisionProperties == params) {
+					slot = i;
+					cached = b;
+					break;
+				}
+			}
+		}
 
-		if (dx > dy) {
+		//chars are checked outside of the cache lock, as Actor.findChar takes the actor lock
+		if (cached != null && cached.charsUnchanged()) {
+			return cached;
+		}
 
-			stepA = stepX;
-			stepB = stepY * w;
-			dA = dx;
-			dB = dy;
+		Ballistic trace = new Ballistic( from, to, params );
+		trace.level = level;
+		trace.version = level.passableVersion();
+		trace.time = now;
+		trace.target = to;
+		trace.recordChars();
+
+		synchronized (cache) {
+			if (slot != -1 && cache[slot] == cached) {
+				cache[slot] = trace;
+			} else {
+				cache[nextSlot] = trace;
+				nextSlot = (nextSlot + 1) % CACHE_SIZE;
+			}
+		}
+		return trace;
+	}
 
-		} else {
+	//the trace looked for chars up to the collision, and one cell further when stopped by terrain
+	private void recordChars(){
+		checked = Math.min( dist + 1, length - 1 );
+		occupied = new boolean[checked + 1];
+		for (int i = 1; i <= checked; i++) {
+			occupied[i] = Actor.findChar( cells[i] ) != null;
+		}
+	}
 
-			stepA = stepY * w;
-			stepB = stepX;
-			dA = dy;
-			dB = dx;
+	private boolean charsUnchanged(){
+		for (int i = 1; i <= checked; i++) {
+			if (occupied[i] != (Actor.findChar( cells[i] ) != null)) {
+				return false;
+			}
+		}
+		return true;
+	}
 
+	//traces a hex line, walking the cube coordinates from the source towards the target and
+	//rounding to the nearest cell at each step. The line keeps going past the target to the map edge.
+	//Returns the index of the collision, or -1 if nothing stopped the line
+	private int build( int from, int to, boolean stopTarget, boolean stopChars, boolean stopTerrain, boolean ignoreSoftSolid ) {
+		Level level = Dungeon.level;
+		int w = level.width();
+		int h = level.height();
+		int stop = -1;
+
+		//enough for most lines across the map, grown below otherwise
+		int[] buffer = scratch.get();
+		if (buffer.length < w + h) {
+			buffer = new int[w + h];
+			scratch.set( buffer );
 		}
 
-		int cell = from;
+		//cube coordinates (odd-q layout), see HexMath
+		int x0 = from % w;
+		int q0 = x0;
+		int r0 = from / w - (x0 - (x0 & 1)) / 2;
+		int x1 = to % w;
+		int q1 = x1;
+		int r1 = to / w - (x1 - (x1 & 1)) / 2;
+
+		int steps = Math.max( Math.abs( q1 - q0 ), Math.max( Math.abs( r1 - r0 ), Math.abs( q1 + r1 - q0 - r0 ) ) );
+		double dq = steps == 0 ? 0 : (q1 - q0) / (double)steps;
+		double dr = steps == 0 ? 0 : (r1 - r0) / (double)steps;
+
+		//nudged slightly, so a line running exactly between two cells always picks the same side
+		double q = q0 + 1e-6;
+		double r = r0 + 2e-6;
+
+		for (int i = 0; steps > 0 || i == 0; i++) {
+
+			double fq = q + dq * i;
+			double fr = r + dr * i;
+			double fs = -fq - fr;
+			int cq = (int)Math.round( fq );
+			int cr = (int)Math.round( fr );
+			int cs = (int)Math.round( fs );
+			double errQ = Math.abs( cq - fq );
+			double errR = Math.abs( cr - fr );
+			double errS = Math.abs( cs - fs );
+			if (errQ > errR && errQ > errS) {
+				cq = -cr - cs;
+			} else if (errR > errS) {
+				cr = -cq - cs;
+			}
 
-		int err = dA / 2;
-		while (Dungeon.level.insideMap(cell)) {
+			int x = cq;
+			int y = cr + (cq - (cq & 1)) / 2;
+			if (x < 0 || x >= w || y < 0 || y >= h) {
+				break;
+			}
+			int cell = x + y * w;
+			//a line between two inner cells can clip the map border, so only stop there past the target
+			if (i > steps && !level.insideMap( cell )) {
+				break;
+			}
 
 			//if we're in solid terrain, and there's no char there, collide with the previous cell.
 			// we don't use solid here because we don't want to stop short of closed doors.
-			if (collisionPos == null
+			if (stop == -1
 					&& stopTerrain
-					&& cell != sourcePos
-					&& !Dungeon.level.passable[cell]
-					&& !Dungeon.level.avoid[cell]
-					&& Actor.findChar(cell) == null) {
-				collide(path.get(path.size() - 1));
+					&& i > 0
+					&& !level.passableBits.get( cell )
+					&& !level.avoidBits.get( cell )
+					&& Actor.findChar( cell ) == null) {
+				stop = i - 1;
 			}
 
-			path.add(cell);
+			if (length == buffer.length) {
+				buffer = Arrays.copyOf( buffer, length * 2 );
+				scratch.set( buffer );
+			}
+			buffer[length++] = cell;
 
-			if (collisionPos == null && stopTerrain && cell != sourcePos && Dungeon.level.solid[cell]) {
-				if (ignoreSoftSolid && (Dungeon.level.passable[cell] || Dungeon.level.avoid[cell])) {
+			if (stop == -1 && stopTerrain && i > 0 && level.solid[cell]) {
+				if (ignoreSoftSolid && (level.passableBits.get( cell ) || level.avoidBits.get( cell ))) {
 					//do nothing
 				} else {
-					collide(cell);
+					stop = i;
 				}
 			}
-			if (collisionPos == null && cell != sourcePos && stopChars && Actor.findChar( cell ) != null) {
-				collide(cell);
-			}
-			if (collisionPos == null && cell == to && stopTarget){
-				collide(cell);
+			if (stop == -1 && i > 0 && stopChars && Actor.findChar( cell ) != null) {
+				stop = i;
 			}
-
-			cell += stepA;
-
-			err += dB;
-			if (err >= dA) {
-				err = err - dA;
-				cell = cell + stepB;
+			if (stop == -1 && cell == to && stopTarget){
+				stop = i;
 			}
 		}
-	}
 
-	//we only want to record the first position collision occurs at.
-	private void collide(int cell){
-		if (collisionPos == null) {
-			collisionPos = cell;
-		}
+		cells = Arrays.copyOf( buffer, length );
+		return stop;
 	}
 
 	//returns a segment of the path from start to end, inclusive.
 	//if there is an error, returns an empty arraylist instead.
 	public List<Integer> subPath(int start, int end){
 		try {
-			end = Math.min( end, path.size()-1);
+			end = Math.min( end, length-1);
 			return path.subList(start, end+1);
 		} catch (Exception e){
 			ShatteredPixelDungeon.reportException(e);
 			return new ArrayList<>();
 		}
 	}
+
+	private class PathList extends AbstractList<Integer> implements RandomAccess {
+
+		@Override
+		public Integer get( int index ) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException( "index: " + index + ", size: " + length );
+			}
+			return cells[index];
+		}
+
+		@Override
+		public int size() {
+			return length;
+		}
+
+		@Override
+		public boolean contains( Object o ) {
+			return indexOf( o ) != -1;
+		}
+
+		@Override
+		public int indexOf( Object o ) {
+			return o instanceof Integer ? Ballistic.this.indexOf( (int)(Integer)o ) : -1;
+		}
+	}
 }
@@ -22,22 +22,35 @@
 package com.shatteredpixel.shatteredpixeldungeon.mechanics;
 
 import com.shatteredpixel.shatteredpixeldungeon.Dungeon;
-import com.watabou.utils.GameMath;
-import com.watabou.utils.Point;
-import com.watabou.utils.PointF;
+import com.shatteredpixel.shatteredpixeldungeon.actors.Actor;
+import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
+import com.watabou.utils.CellBitSet;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
-//a cone made of up several ballistics scanning in an arc
+//a hex sector, found by sweeping outward from the source one ring of cells at a time.
+//A cell is reached if the cell before it on the line from the source let the cone through,
+//using the same terrain and char checks as Ballistic. Rays are only cast along the outer arc.
 public class ConeAOE {
 
 	public Ballistic coreRay;
 
+	//rays to each cell on the outer arc of the cone, in clockwise order
 	public ArrayList<Ballistic> outerRays = new ArrayList<>();
+	//kept for callers which walk rays looking for targets, these are the outer rays
 	public ArrayList<Ballistic> rays = new ArrayList<>();
-	public HashSet<Integer> cells = new HashSet<>();
+
+	public CellBitSet cellBits;
+	public Set<Integer> cells = new CellSet();
+
+	//cube directions, in the order a ring is walked. A ring of radius n starts n steps along the 5th
+	private static final int[] RING_Q = { +1, +1,  0, -1, -1,  0 };
+	private static final int[] RING_R = {  0, -1, -1,  0, +1, +1 };
 
 	public ConeAOE( Ballistic core, float degrees ){
 		this( core, Float.POSITIVE_INFINITY, degrees, core.collisionProperties );
@@ -47,70 +60,212 @@ public class ConeAOE {
 
 		coreRay = core;
 
-		//we want to use true coordinates for our trig functions, not game cells
-		// so get the center of from and to as points
-		PointF fromP = new PointF(Dungeon.level.cellToPoint(core.sourcePos));
-		fromP.x += 0.5f;
-		fromP.y += 0.5f;
+		Level level = Dungeon.level;
+		int w = level.width();
+		int h = level.height();
+
+		boolean stopTarget = (ballisticParams & Ballistic.STOP_TARGET) > 0;
+		boolean stopChars = (ballisticParams & Ballistic.STOP_CHARS) > 0;
+		boolean stopTerrain = (ballisticParams & Ballistic.STOP_SOLID) > 0;
+		boolean ignoreSoftSolid = (ballisticParams & Ballistic.IGNORE_SOFT_SOLID) > 0;
 
-		PointF toP = new PointF(Dungeon.level.cellToPoint(core.collisionPos));
-		toP.x += 0.5f;
-		toP.y += 0.5f;
+		//cube coordinates (odd-q layout), see HexMath
+		int from = core.sourcePos;
+		int q0 = from % w;
+		int r0 = from / w - (q0 - (q0 & 1)) / 2;
+
+		int to = core.collisionPos;
+		int toQ = to % w - q0;
+		int toR = to / w - (to % w - (to % w & 1)) / 2 - r0;
 
 		//clamp distance of cone to maxDist (in true distance, not game distance)
-		if (PointF.distance(fromP, toP) > maxDist){
-			toP = PointF.inter(fromP, toP, maxDist/PointF.distance(fromP, toP) );
-		}
+		//we bump it by 0.5 as we want the cone to reach the edge of the target cell, not the center.
+		float radius = Math.min( trueDistance( toQ, toR ), maxDist ) + 0.5f;
+		float aim = angle( toQ, toR );
+		float halfArc = degrees / 2f;
+
+		cellBits = new CellBitSet( level.length() );
+		//cells the cone continues past
+		CellBitSet open = new CellBitSet( level.length() );
+		open.set( from );
+
+		//a straight line of true length r covers at most r/cos(30) hex steps.
+		//Without STOP_TARGET rays carry on past the arc, so the sweep only ends once everything is blocked.
+		//Only cells in the sector are opened, so it never spreads out past the sides of the cone
+		int arcRing = (int)Math.ceil( radius / 0.866f ) + 1;
+		int maxRing = stopTarget ? arcRing : w + h;
+
+		int[] arcCells = new int[16];
+		float[] arcAngles = new float[16];
+		int arcLength = 0;
+
+		for (int n = 1; n <= maxRing; n++) {
+
+			boolean anyOpen = false;
+
+			int dq = n * RING_Q[4];
+			int dr = n * RING_R[4];
+			for (int side = 0; side < 6; side++) {
+				for (int step = 0; step < n; step++, dq += RING_Q[side], dr += RING_R[side]) {
+
+					int cell = cell( q0 + dq, r0 + dr, w, h );
+					if (cell == -1 || !level.insideMap( cell )) {
+						continue;
+					}
 
-		//now we can get the circle's radius. We bump it by 0.5 as we want the cone to reach
-		// The edge of the target cell, not the center.
-		float circleRadius = PointF.distance(fromP, toP);
-		circleRadius += 0.5f;
-
-		//Now we find every unique cell along the outer arc of our cone.
-		PointF scan = new PointF();
-		Point scanInt = new Point();
-		float initialAngle = PointF.angle(fromP, toP)/PointF.G2R;
-		//want to preserve order so that our collection of rays is going clockwise
-		LinkedHashSet<Integer> targetCells = new LinkedHashSet<>();
-		LinkedHashSet<Integer> outerCells = new LinkedHashSet<>();
-
-		//cast a ray every 0.5 degrees in a clockwise arc, to find cells along the cone's outer arc
-		for (float a = initialAngle+degrees/2f; a >= initialAngle-degrees/2f; a-=0.5f){
-			scan.polar(a * PointF.G2R, circleRadius);
-			scan.offset(fromP);
-			scan.x += (fromP.x > scan.x ? +0.5f : -0.5f);
-			scan.y += (fromP.y > scan.y ? +0.5f : -0.5f);
-			scanInt.set(
-					(int)GameMath.gate(0, (int)Math.floor(scan.x), Dungeon.level.width()-1),
-					(int)GameMath.gate(0, (int)Math.floor(scan.y), Dungeon.level.height()-1));
-			targetCells.add(Dungeon.level.pointToCell(scanInt));
-			outerCells.add(Dungeon.level.pointToCell(scanInt));
-			//if the cone is large enough, also cast rays to cells just inside of the outer arc
-			// this helps fill in any holes when casting rays
-			if (circleRadius >= 4) {
-				scan.polar(a * PointF.G2R, circleRadius - 1);
-				scan.offset(fromP);
-				scan.x += (fromP.x > scan.x ? +0.5f : -0.5f);
-				scan.y += (fromP.y > scan.y ? +0.5f : -0.5f);
-				scanInt.set(
-						(int)GameMath.gate(0, (int)Math.floor(scan.x), Dungeon.level.width()-1),
-						(int)GameMath.gate(0, (int)Math.floor(scan.y), Dungeon.level.height()-1));
-				targetCells.add(Dungeon.level.pointToCell(scanInt));
+					float dist = trueDistance( dq, dr );
+					float arcOffset = signedAngleBetween( angle( dq, dr ), aim );
+					//a cell is in the cone if any part of it is, not just its center
+					boolean inArc = degrees >= 360
+							|| Math.abs( arcOffset ) <= halfArc + (float)Math.toDegrees( Math.atan2( 0.5f, dist ) );
+
+					//rays are cast to the whole outer arc, even where the cone is blocked before it
+					if (inArc && dist <= radius && dist > radius - 1) {
+						if (arcLength == arcCells.length) {
+							arcCells = Arrays.copyOf( arcCells, arcLength * 2 );
+							arcAngles = Arrays.copyOf( arcAngles, arcLength * 2 );
+						}
+						//clockwise, starting from the end of the arc with the greatest angle
+						int i = arcLength++;
+						while (i > 0 && arcAngles[i - 1] < arcOffset) {
+							arcCells[i] = arcCells[i - 1];
+							arcAngles[i] = arcAngles[i - 1];
+							i--;
+						}
+						arcCells[i] = cell;
+						arcAngles[i] = arcOffset;
+					}
+
+					//the line from the source to a cell stays in its sector, so its parent is in the cone too
+					int parent = parent( q0, r0, dq, dr, n, w, h );
+					if (!inArc || parent == -1 || !open.get( parent ) || (stopTarget && dist > radius)) {
+						continue;
+					}
+
+					//as in Ballistic, solid terrain without a char in it stops the cone short of it
+					if (stopTerrain
+							&& !level.passableBits.get( cell )
+							&& !level.avoidBits.get( cell )
+							&& Actor.findChar( cell ) == null) {
+						continue;
+					}
+
+					cellBits.set( cell );
+
+					if (stopTerrain && level.solid[cell]
+							&& !(ignoreSoftSolid && (level.passableBits.get( cell ) || level.avoidBits.get( cell )))) {
+						continue;
+					}
+					if (stopChars && Actor.findChar( cell ) != null) {
+						continue;
+					}
+
+					open.set( cell );
+					anyOpen = true;
+				}
+			}
+
+			//the outer arc is always swept, past that the sweep stops once nothing gets through
+			if (!anyOpen && n >= arcRing) {
+				break;
 			}
 		}
 
-		//cast a ray to each found cell, these make up the cone
 		//we don't add the core ray as its collision properties may differ from the cone
-		for( int c : targetCells ){
-			Ballistic ray = new Ballistic(core.sourcePos, c, ballisticParams);
-			cells.addAll(ray.subPath(1, ray.dist));
-			rays.add(ray);
-			if (outerCells.contains(c)){
-				outerRays.add(ray);
-			}
+		for (int i = 0; i < arcLength; i++) {
+			Ballistic ray = new Ballistic( from, arcCells[i], ballisticParams );
+			outerRays.add( ray );
+			rays.add( ray );
 		}
+	}
 
+	private static int cell( int q, int r, int w, int h ){
+		int y = r + (q - (q & 1)) / 2;
+		if (q < 0 || q >= w || y < 0 || y >= h) {
+			return -1;
+		}
+		return q + y * w;
 	}
 
+	//the cell before (dq, dr) on the line from the source, rounded the same way as Ballistic
+	private static int parent( int q0, int r0, int dq, int dr, int n, int w, int h ){
+		if (n == 1) {
+			return cell( q0, r0, w, h );
+		}
+
+		double t = (n - 1) / (double)n;
+		double fq = q0 + 1e-6 + dq * t;
+		double fr = r0 + 2e-6 + dr * t;
+		double fs = -fq - fr;
+		int cq = (int)Math.round( fq );
+		int cr = (int)Math.round( fr );
+		int cs = (int)Math.round( fs );
+		double errQ = Math.abs( cq - fq );
+		double errR = Math.abs( cr - fr );
+		double errS = Math.abs( cs - fs );
+		if (errQ > errR && errQ > errS) {
+			cq = -cr - cs;
+		} else if (errR > errS) {
+			cr = -cq - cs;
+		}
+		return cell( cq, cr, w, h );
+	}
+
+	//relative cube coordinates to the tile layout used for drawing (see HexMath), in units of one cell
+	private static float trueDistance( int dq, int dr ){
+		float x = 14 * dq;
+		float y = 8 * dq + 16 * dr;
+		return (float)Math.sqrt( x * x + y * y ) / 16f;
+	}
+
+	private static float angle( int dq, int dr ){
+		return (float)Math.toDegrees( Math.atan2( 8 * dq + 16 * dr, 14 * dq ) );
+	}
+
+	private static float signedAngleBetween( float a, float b ){
+		float diff = (a - b) % 360f;
+		if (diff > 180f) diff -= 360f;
+		else if (diff <= -180f) diff += 360f;
+		return diff;
+	}
+
+	private class CellSet extends AbstractSet<Integer> {
+
+		@Override
+		public boolean contains( Object o ) {
+			if (!(o instanceof Integer)) return false;
+			int cell = (Integer)o;
+			return cell >= 0 && cell < cellBits.length() && cellBits.get( cell );
+		}
+
+		@Override
+		public int size() {
+			return cellBits.cardinality();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return cellBits.nextSetBit( 0 ) == -1;
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			return new Iterator<Integer>() {
+				int next = cellBits.nextSetBit( 0 );
+
+				@Override
+				public boolean hasNext() {
+					return next != -1;
+				}
+
+				@Override
+				public Integer next() {
+					if (next == -1) throw new NoSuchElementException();
+					int cell = next;
+					next = cellBits.nextSetBit( cell + 1 );
+					return cell;
+				}
+			};
+		}
+	}
 }
@@ -0,0 +1,124 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.shatteredpixel.shatteredpixeldungeon.mechanics;
+
+import com.shatteredpixel.shatteredpixeldungeon.actors.blobs.Blob;
+import com.shatteredpixel.shatteredpixeldungeon.actors.blobs.SmokeScreen;
+import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
+import com.watabou.utils.CellBitSet;
+import com.watabou.utils.SparseArray;
+
+import java.util.ArrayList;
+
+//Shadow casts from earlier turns, so chars which haven't moved since don't cast again.
+//A cast only depends on where it's from, how far it reaches, and the blocking map it used.
+//That map is level.losBlocking with grass made see-through and/or smoke made blocking,
+//so entries are dropped whenever losBlocking or an active smoke screen changes.
+public class FieldOfViewCache {
+
+	//more entries than this means the cache is mostly holding positions nobody is at anymore
+	private static final int MAX_ENTRIES = 128;
+
+	private static long hits = 0;
+	private static long misses = 0;
+
+	private final SparseArray<CellBitSet> entries = new SparseArray<>();
+	//bitsets from dropped entries, reused for new ones
+	private final ArrayList<CellBitSet> spare = new ArrayList<>();
+
+	private int losVersion = -1;
+	private Blob smoke;
+	private int smokeVersion;
+
+	//cells are below 2^20 and distances below 2^8, see ShadowCaster.MAX_DISTANCE
+	private static int key( int pos, int distance, boolean seeThroughGrass, boolean smoky ){
+		return pos
+				| Math.min( distance, ShadowCaster.MAX_DISTANCE ) << 20
+				| (seeThroughGrass ? 1 << 28 : 0)
+				| (smoky ? 1 << 29 : 0);
+	}
+
+	//fills fieldOfView from a cached cast and returns true, or returns false if there is none
+	public boolean get( Level level, int pos, int distance, boolean seeThroughGrass, boolean smoky, boolean[] fieldOfView ){
+		validate( level );
+
+		CellBitSet cast = entries.get( key( pos, distance, seeThroughGrass, smoky ) );
+		if (cast == null || cast.length() != fieldOfView.length){
+			misses++;
+			return false;
+		}
+
+		hits++;
+		cast.toArray( fieldOfView );
+		return true;
+	}
+
+	public void put( Level level, int pos, int distance, boolean seeThroughGrass, boolean smoky, boolean[] fieldOfView ){
+		validate( level );
+
+		if (entries.size >= MAX_ENTRIES){
+			clear();
+		}
+
+		CellBitSet cast = spare.isEmpty() ? null : spare.remove( spare.size()-1 );
+		if (cast == null || cast.length() != fieldOfView.length){
+			cast = new CellBitSet( fieldOfView.length );
+		}
+		entries.put( key( pos, distance, seeThroughGrass, smoky ), cast.fromArray( fieldOfView ) );
+	}
+
+	public void clear(){
+		spare.addAll( entries.valueList() );
+		entries.clear();
+	}
+
+	private void validate( Level level ){
+		Blob s = level.blobs.get( SmokeScreen.class );
+		boolean smokeActive = s != null && s.volume > 0;
+
+		if (losVersion != level.losBlockingVersion()
+				|| (smokeActive && (s != smoke || s.version() != smokeVersion))){
+			clear();
+			losVersion = level.losBlockingVersion();
+		}
+
+		if (smokeActive){
+			smoke = s;
+			smokeVersion = s.version();
+		}
+	}
+
+	public static long hits(){
+		return hits;
+	}
+
+	public static long misses(){
+		return misses;
+	}
+
+	public static void resetStats(){
+		hits = misses = 0;
+	}
+}
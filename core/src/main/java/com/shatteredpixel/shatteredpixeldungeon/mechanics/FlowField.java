@@ -0,0 +1,149 @@
+/*
+ * Pixel Dungeon
+ * Copyright (C) 2012-2015 Oleg Dolya
+ *
+ * Shattered Pixel Dungeon
+ * Copyright (C) 2014-2025 Evan Debenham
+ *
+ * Hexagonal Pixel Dungeon
+ * Copyright (C) 2025 Dmitry Tyurnikov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.shatteredpixel.shatteredpixeldungeon.mechanics;
+
+import com.shatteredpixel.shatteredpixeldungeon.Dungeon;
+import com.shatteredpixel.shatteredpixeldungeon.actors.Actor;
+import com.shatteredpixel.shatteredpixeldungeon.actors.Char;
+import com.shatteredpixel.shatteredpixeldungeon.actors.buffs.Amok;
+import com.shatteredpixel.shatteredpixeldungeon.levels.Level;
+import com.watabou.utils.CellBitSet;
+import com.watabou.utils.PathContext;
+import com.watabou.utils.PathFinder;
+
+//Distance maps towards a target cell which are shared between every char heading there.
+//Hunting mobs usually all chase the hero, so this replaces one flood per mob with one per turn.
+//A field only covers terrain, chars are checked against the descended path afterwards.
+public class FlowField {
+
+	public enum Movement {
+		REGULAR,
+		FLYING,
+		LARGE,
+		LARGE_FLYING;
+
+		public static Movement of( Char ch, boolean considerLarge ){
+			boolean flying = ch.flying || ch.buff( Amok.class ) != null;
+			if (considerLarge && Char.hasProp( ch, Char.Property.LARGE )){
+				return flying ? LARGE_FLYING : LARGE;
+			} else {
+				return flying ? FLYING : REGULAR;
+			}
+		}
+	}
+
+	private static final int CACHE_SIZE = 8;
+
+	private static final FlowField[] cache = new FlowField[CACHE_SIZE];
+	private static int nextSlot = 0;
+
+	private final PathContext context = new PathContext();
+	private CellBitSet mask;
+	private boolean[] passable;
+
+	private Level level;
+	private int target;
+	private int version;
+	private Movement movement;
+	private float time;
+
+	private boolean matches( Level level, int target, Movement movement ){
+		return this.level == level
+				&& this.target == target
+				&& this.movement == movement
+				&& this.version == level.passableVersion()
+				&& this.time == Actor.now();
+	}
+
+	private void build( Level level, int target, Movement movement ){
+		this.level = level;
+		this.target = target;
+		this.movement = movement;
+		this.version = level.passableVersion();
+		this.time = Actor.now();
+
+		if (passable == null || passable.length != level.length()){
+			passable = new boolean[level.length()];
+			mask = new CellBitSet( level.length() );
+		}
+		mask.set( level.passableBits );
+		if (movement == Movement.FLYING || movement == Movement.LARGE_FLYING){
+			mask.or( level.avoidBits );
+		}
+		if (movement == Movement.LARGE || movement == Movement.LARGE_FLYING){
+			mask.and( level.openSpaceBits );
+		}
+		mask.toArray( passable );
+
+		context.setMapSize( level.width(), level.height() );
+		context.buildDistanceMap( target, passable );
+	}
+
+	public static synchronized FlowField get( int target, Movement movement ){
+		Level level = Dungeon.level;
+		for (FlowField field : cache){
+			if (field != null && field.matches( level, target, movement )){
+				return field;
+			}
+		}
+
+		if (cache[nextSlot] == null){
+			cache[nextSlot] = new FlowField();
+		}
+		FlowField field = cache[nextSlot];
+		nextSlot = (nextSlot + 1) % CACHE_SIZE;
+
+		field.build( level, target, movement );
+		return field;
+	}
+
+	public static synchronized void clear(){
+		for (FlowField field : cache){
+			if (field != null){
+				field.level = null;
+			}
+		}
+	}
+
+	//same result as Dungeon.findPath( ch, to, Dungeon.level.passable, vis, chars ),
+	//but the terrain flood is shared with every other char moving towards 'to' this turn.
+	//Chars whose modifyPassable alters the map must keep using Dungeon.findPath
+	public static PathFinder.Path findPath( Char ch, int to, boolean[] vis, boolean chars ){
+
+		PathFinder.Path path = get( to, Movement.of( ch, chars ) ).context.descendDistanceMap( ch.pos, to );
+
+		//visible chars only ever remove cells from the passable map, so if none of them are on
+		//the terrain-only path it is also the path Dungeon.findPath would find with them included
+		if (path != null && chars){
+			for (int cell : path){
+				if (cell != to && vis[cell] && Actor.findChar( cell ) != null){
+					return Dungeon.findPath( ch, to, Dungeon.level.passable, vis, true );
+				}
+			}
+		}
+
+		return path;
+	}
+}
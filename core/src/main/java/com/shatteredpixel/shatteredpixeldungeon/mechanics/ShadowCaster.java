@@ -21,16 +21,15 @@
 
 package com.shatteredpixel.shatteredpixeldungeon.mechanics;
 
-import com.shatteredpixel.shatteredpixeldungeon.ShatteredPixelDungeon;
 import com.watabou.utils.BArray;
 
-//based on: http://www.roguebasin.com/index.php?title=FOV_using_recursive_shadowcasting
+//casts hexagonal FOV one sextant at a time, see scanSextant
 public final class ShadowCaster {
 
 	public static final int MAX_DISTANCE = 20;
 	
 	//max length of rows as FOV moves out, for each FOV distance
-	//This is used to make the overall FOV circular, instead of square
+	//This is used to make square grid areas circular, FOV itself now uses hexagonal rings
 	public static int[][] rounding;
 	static {
 		rounding = new int[MAX_DISTANCE+1][];
@@ -45,7 +44,35 @@ public final class ShadowCaster {
 		}
 	}
 	
-	// TODO: Hexagonal
+	//cube directions of the six hex corners, going around
+	private static final int[] DIR_Q = { +1, +1,  0, -1, -1,  0 };
+	private static final int[] DIR_R = {  0, -1, -1,  0, +1, +1 };
+
+	//offsets of every cell in each sextant of the FOV, by ring and then by position along the ring.
+	//Position 0 lies on the sextant's first corner and position 'ring' on its second.
+	//The first index is the parity of the source column, as the odd-q layout shifts odd columns down
+	private static int[][][][] ringX;
+	private static int[][][][] ringY;
+	static {
+		ringX = new int[2][6][MAX_DISTANCE+1][];
+		ringY = new int[2][6][MAX_DISTANCE+1][];
+		for (int parity = 0; parity < 2; parity++) {
+			for (int s = 0; s < 6; s++) {
+				int e = (s + 2) % 6;
+				for (int ring = 1; ring <= MAX_DISTANCE; ring++) {
+					ringX[parity][s][ring] = new int[ring + 1];
+					ringY[parity][s][ring] = new int[ring + 1];
+					for (int col = 0; col <= ring; col++) {
+						int q = ring * DIR_Q[s] + col * DIR_Q[e];
+						int r = ring * DIR_R[s] + col * DIR_R[e];
+						ringX[parity][s][ring][col] = q;
+						ringY[parity][s][ring][col] = r + Math.floorDiv(q + parity, 2);
+					}
+				}
+			}
+		}
+	}
+
 	public static void castShadow( int x, int y, int w, boolean[] fieldOfView, boolean[] blocking, int distance ) {
 		
 		if (distance >= MAX_DISTANCE){
@@ -56,111 +83,71 @@ public final class ShadowCaster {
 
 		//set source cell to true
 		fieldOfView[y * w + x] = true;
-		
-		//scans octants, clockwise
-		try {
-			scanOctant(distance, fieldOfView, blocking, 1, x, y, w, 0.0, 1.0, +1, -1, false);
-			scanOctant(distance, fieldOfView, blocking, 1, x, y, w, 0.0, 1.0, -1, +1, true);
-			scanOctant(distance, fieldOfView, blocking, 1, x, y, w, 0.0, 1.0, +1, +1, true);
-			scanOctant(distance, fieldOfView, blocking, 1, x, y, w, 0.0, 1.0, +1, +1, false);
-			scanOctant(distance, fieldOfView, blocking, 1, x, y, w, 0.0, 1.0, -1, +1, false);
-			scanOctant(distance, fieldOfView, blocking, 1, x, y, w, 0.0, 1.0, +1, -1, true);
-			scanOctant(distance, fieldOfView, blocking, 1, x, y, w, 0.0, 1.0, -1, -1, true);
-			scanOctant(distance, fieldOfView, blocking, 1, x, y, w, 0.0, 1.0, -1, -1, false);
-		} catch (Exception e){
-			ShatteredPixelDungeon.reportException(e);
-			BArray.setFalse(fieldOfView);
+
+		int h = blocking.length / w;
+
+		//scans sextants, counter-clockwise
+		for (int s = 0; s < 6; s++){
+			scanSextant(distance, fieldOfView, blocking, 1, x, y, w, h,
+					ringX[x & 1][s], ringY[x & 1][s], 0, 1, 1, 1);
 		}
 
 	}
-	
-	//scans a single 45 degree octant of the FOV.
-	//This can add up to a whole FOV by mirroring in X(mX), Y(mY), and X=Y(mXY)
-	private static void scanOctant(int distance, boolean[] fov, boolean[] blocking, int row,
-	                               int x, int y, int w, double lSlope, double rSlope,
-	                               int mX, int mY, boolean mXY){
-		
-		boolean inBlocking = false;
-		int start, end;
-		int col;
-
-		int[] roundingAtDist;
-		if (distance == 2){
-			//at a visibility distance of 2 we fill in the corners of vision
-			// as otherwise this vision range disproportionately punishes diagonal movement,
-			// even though removing corners is technically correct
-			roundingAtDist = rounding[distance].clone();
-			roundingAtDist[2] = 2;
-		} else {
-			roundingAtDist = rounding[distance];
-		}
-		
-		//calculations are offset by 0.5 because FOV is coming from the center of the source cell
-		
-		//for each row, starting with the current one
-		for (; row <= distance; row++){
-
-			//if we have negative space to traverse, just quit.
-			if (rSlope < lSlope) return;
-			
-			//we offset by slightly less than 0.5 to account for slopes just touching a cell
-			if (lSlope == 0)    start = 0;
-			else                start = (int)Math.floor((row - 0.5) * lSlope + 0.499);
-			
-			if (rSlope == 1)    end = roundingAtDist[row];
-			else                end = Math.min( roundingAtDist[row],
-			                                    (int)Math.ceil((row + 0.5) * rSlope - 0.499));
-			
-			//coordinates of source
-			int cell = x + y*w;
-			
-			//plus coordinates of current cell (including mirroring in x, y, and x=y)
-			if (mXY)    cell += mX*start*w + mY*row;
-			else        cell += mX*start + mY*row*w;
-			
-			//for each column in this row, which
-			for (col = start; col <= end; col++){
-
-
-				//handles the error case of the slope value at the end of a cell being 1 farther
-				// along then at the beginning of the cell, and that earlier cell is vision blocking
-				if (col == end && inBlocking && (int)Math.ceil((row - 0.5) * rSlope - 0.499) != end){
-					break;
+
+	//scans a single 60 degree sextant of the FOV, using symmetric shadowcasting:
+	//https://www.albertford.com/shadowcasting/
+	//Each ring of a sextant is a straight row of cells, so rings act as rows and positions
+	//along a ring as columns. Slopes are kept as exact fractions, num / den
+	private static void scanSextant(int distance, boolean[] fov, boolean[] blocking, int ring,
+	                                int x, int y, int w, int h, int[][] offX, int[][] offY,
+	                                int startNum, int startDen, int endNum, int endDen){
+
+		for (; ring <= distance; ring++){
+
+			//first and last columns touched by the slopes, rounding ties towards the middle
+			int start = Math.floorDiv(2*ring*startNum + startDen, 2*startDen);
+			int end = -Math.floorDiv(endDen - 2*ring*endNum, 2*endDen);
+
+			if (start > end) return;
+
+			int[] ringOffX = offX[ring];
+			int[] ringOffY = offY[ring];
+
+			//-1 before the first column, then whether the previous column blocked
+			int prevBlocking = -1;
+
+			for (int col = start; col <= end; col++){
+
+				int cx = x + ringOffX[col];
+				int cy = y + ringOffY[col];
+
+				//cells outside of the map block vision
+				boolean inside = cx >= 0 && cx < w && cy >= 0 && cy < h;
+				int cell = cx + cy * w;
+				boolean blocks = !inside || blocking[cell];
+
+				//blocking cells are seen whenever touched, open cells only if their centre is in view.
+				//This makes vision symmetric: if A sees B, then B sees A
+				if (inside && (blocks
+						|| (col * startDen >= ring * startNum && col * endDen <= ring * endNum))){
+					fov[cell] = true;
 				}
-				
-				fov[cell] = true;
-				
-				if (blocking[cell]){
-					if (!inBlocking){
-						inBlocking = true;
-						
-						//start a new scan, 1 row deeper, ending at the left side of current cell
-						if (col != start){
-							scanOctant(distance, fov, blocking, row+1, x, y, w, lSlope,
-									//change in x over change in y
-									(col - 0.5) / (row + 0.5),
-									mX, mY, mXY);
-						}
-					}
-				
-				} else {
-					if (inBlocking){
-						inBlocking = false;
-						
-						//restrict current scan to the left side of current cell for future rows
-						
-						//change in x over change in y
-						lSlope = (col - 0.5) / (row - 0.5);
-					}
+
+				if (prevBlocking == 1 && !blocks){
+					//restrict current scan to start at the left edge of this cell
+					startNum = 2*col - 1;
+					startDen = 2*ring;
+				} else if (prevBlocking == 0 && blocks){
+					//start a new scan, 1 ring deeper, ending at the left edge of this cell
+					scanSextant(distance, fov, blocking, ring+1, x, y, w, h, offX, offY,
+							startNum, startDen, 2*col - 1, 2*ring);
 				}
-				
-				if (!mXY)   cell += mX;
-				else        cell += mX*w;
-				
+
+				prevBlocking = blocks ? 1 : 0;
 			}
-			
-			//if the row ends in a blocking cell, this scan is finished.
-			if (inBlocking) return;
+
+			//if the ring ends in a blocking cell, this scan is finished.
+			if (prevBlocking == 1) return;
 		}
 	}
 }
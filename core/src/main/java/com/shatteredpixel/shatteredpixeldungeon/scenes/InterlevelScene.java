@@ -582,7 +582,7 @@ public class InterlevelScene extends PixelScene {
 					s += t.toString();
 				}
 				//we care about reporting game logic exceptions, not slow IO
-				if (!s.contains("FileUtils.bundleToFile")){
+				if (!s.contains("FileUtils.bundleToFile") && !s.contains("BundleWriter")){
 					ShatteredPixelDungeon.reportException(
 							new RuntimeException("waited more than 10 seconds on levelgen. " +
 									"Seed:" + Dungeon.seed + " depth:" + Dungeon.depth + " trace:" +
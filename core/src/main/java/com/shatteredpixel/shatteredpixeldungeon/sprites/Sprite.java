@@ -30,6 +30,7 @@ import com.watabou.glwrap.VertexBuffer;
 import com.watabou.noosa.Camera;
 import com.watabou.noosa.MovieClip;
 import com.watabou.noosa.NoosaScript;
+import com.watabou.noosa.QuadBatch;
 import com.watabou.utils.HexMath;
 import com.watabou.utils.PointF;
 
@@ -93,7 +94,12 @@ public class Sprite extends MovieClip {
 		if (texture == null || (!dirty && buffer == null))
 			return;
 
-		if (renderShadow) {
+		if (renderShadow && batched()) {
+			updateMatrix();
+			QuadBatch.add( texture, camera(), shadowMatrix, vertices,
+					0, 0, 0, am * .6f,
+					0, 0, 0, aa * .6f );
+		} else if (renderShadow) {
 			if (dirty) {
 				((Buffer)verticesBuffer).position(0);
 				verticesBuffer.put(vertices);
@@ -173,6 +173,27 @@ public abstract class DungeonTileMap extends HexTileMap {
 		return tileToWorld(pos, 0, 0);
 	}
 
+	//tileToWorld for every cell of the current level, without allocating a point per call.
+	//The position of a cell is at [2*cell] and [2*cell+1]. It only depends on the level's size
+	private static float[] cellPositions = new float[0];
+	private static int cellPositionsWidth = 0;
+
+	public static synchronized float[] cellPositions() {
+		int width = Dungeon.level.width();
+		int length = Dungeon.level.length();
+		if (cellPositionsWidth != width || cellPositions.length != 2*length) {
+			float[] positions = new float[2*length];
+			for (int cell = 0; cell < length; cell++) {
+				PointF p = HexMath.HexToPixel( cell % width, cell / width );
+				positions[2*cell] = p.x;
+				positions[2*cell + 1] = p.y;
+			}
+			cellPositions = positions;
+			cellPositionsWidth = width;
+		}
+		return cellPositions;
+	}
+
 	public static PointF tileCenterToWorld( int pos ) {
 		return tileToWorld(pos, 0.5f * WIDTH, 0.5f * HEIGHT);
 	}
@@ -32,6 +32,7 @@ import com.watabou.utils.HexMath;
 import com.watabou.utils.Rect;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class FogOfWar extends Image {
 
@@ -76,6 +77,14 @@ public class FogOfWar extends Image {
 	private volatile ArrayList<Rect> toUpdate;
 	private volatile ArrayList<Rect> updating;
 
+	//the colors last drawn for the left and right half of each cell,
+	//so only cells whose fog actually changed are redrawn and uploaded
+	private int[] shownLeft;
+	private int[] shownRight;
+
+	//cell regions of the texture which have been redrawn this update
+	private final ArrayList<Rect> uploads = new ArrayList<>();
+
 	//should be divisible by 2
 	private static final int PIX_PER_TILE = 2;
 
@@ -117,7 +126,13 @@ public class FogOfWar extends Image {
 		texture.bitmap.setColor( 0x000000FF );
 		texture.bitmap.fill();
 
-		texture.bind();
+		//the texture may be reused from an earlier level, and later updates only upload changed cells
+		texture.bitmap(texture.bitmap);
+
+		shownLeft = new int[mapLength];
+		shownRight = new int[mapLength];
+		Arrays.fill( shownLeft, FOG_COLORS[INVISIBLE][0] );
+		Arrays.fill( shownRight, FOG_COLORS[INVISIBLE][0] );
 
 		scale.set( HexMath.RATIO * DungeonTileMap.WIDTH / PIX_PER_TILE, DungeonTileMap.HEIGHT / PIX_PER_TILE );
 
@@ -131,14 +146,31 @@ public class FogOfWar extends Image {
 	}
 	
 	public synchronized void updateFog(Rect update){
-		for (Rect r : toUpdate.toArray(new Rect[0])){
-			if (!r.intersect(update).isEmpty()){
-				toUpdate.remove(r);
-				toUpdate.add(r.union(update));
-				return;
+		//cells outside the map would be uploaded outside the fog image
+		update = update.intersect(new Rect(0, 0, mapWidth, mapHeight));
+		if (update.isEmpty()) return;
+		merge(toUpdate, update);
+	}
+
+	//adds a rect to a list of disjoint rects, joining it with every rect it overlaps or shares an edge with.
+	//A joined rect can reach further rects, so this repeats until nothing else touches it
+	private static void merge( ArrayList<Rect> rects, Rect add ){
+		boolean merged = true;
+		while (merged) {
+			merged = false;
+			for (int i = 0; i < rects.size(); i++) {
+				Rect r = rects.get(i);
+				int overlapX = Math.min(r.right, add.right) - Math.max(r.left, add.left);
+				int overlapY = Math.min(r.bottom, add.bottom) - Math.max(r.top, add.top);
+				if ((overlapX > 0 && overlapY >= 0) || (overlapX >= 0 && overlapY > 0)) {
+					add = r.union(add);
+					rects.remove(i);
+					merged = true;
+					break;
+				}
 			}
 		}
-		toUpdate.add(update);
+		rects.add(add);
 	}
 
 	public synchronized void updateFog( int cell, int radius ){
@@ -176,43 +208,32 @@ public class FogOfWar extends Image {
 		this.brightness = SPDSettings.brightness() + 1;
 
 		moveToUpdating();
-		
-		boolean fullUpdate = false;
-		if (updating.size() == 1){
-			Rect update = updating.get(0);
-			if (update.height() == mapHeight && update.width() == mapWidth){
-				fullUpdate = true;
-			}
-		}
 
 		Pixmap fog = texture.bitmap;
 		fog.setBlending(Pixmap.Blending.None);
 
 		int cell;
+		int left, right;
 		
 		for (Rect update : updating) {
+			Rect changed = new Rect();
+
 			for (int i = update.top; i < update.bottom; i++) {
 				cell = mapWidth * i + update.left;
-				for (int j = update.left; j < update.right; j++) {
+				for (int j = update.left; j < update.right; j++, cell++) {
 					
 					if (cell >= Dungeon.level.length()) continue; //do nothing
 					
 					if (!Dungeon.level.discoverable[cell]
 							|| (!visible[cell] && !visited[cell] && !mapped[cell])) {
-						//we skip filling cells here if it isn't a full update
-						// because they must already be dark
-						if (fullUpdate)
-							fillCell(fog, j, i, FOG_COLORS[INVISIBLE][brightness]);
-						cell++;
-						continue;
-					}
+						left = right = FOG_COLORS[INVISIBLE][brightness];
 					
 					//wall tiles
-					if (wall(cell)) {
+					} else if (wall(cell)) {
 						
 						//always dark if nothing is beneath them
 						if (cell + mapWidth >= mapLength) {
-							fillCell(fog, j, i, FOG_COLORS[INVISIBLE][brightness]);
+							left = right = FOG_COLORS[INVISIBLE][brightness];
 							
 						//internal wall tiles, need to check both the left and right side,
 						// to account for only one half of them being seen
@@ -226,17 +247,17 @@ public class FogOfWar extends Image {
 									
 									//if below-left is also a wall, then we should be dark no matter what.
 									if (wall(cell + mapWidth - 1)) {
-										fillLeft(fog, j, i, FOG_COLORS[INVISIBLE][brightness]);
+										left = FOG_COLORS[INVISIBLE][brightness];
 									} else {
-										fillLeft(fog, j, i, FOG_COLORS[Math.max(getCellFog(cell), Math.max(getCellFog(cell + mapWidth - 1), getCellFog(cell - 1)))][brightness]);
+										left = FOG_COLORS[Math.max(getCellFog(cell), Math.max(getCellFog(cell + mapWidth - 1), getCellFog(cell - 1)))][brightness];
 									}
 									
 								} else {
-									fillLeft(fog, j, i, FOG_COLORS[Math.max(getCellFog(cell), getCellFog(cell - 1))][brightness]);
+									left = FOG_COLORS[Math.max(getCellFog(cell), getCellFog(cell - 1))][brightness];
 								}
 								
 							} else {
-								fillLeft(fog, j, i, FOG_COLORS[INVISIBLE][brightness]);
+								left = FOG_COLORS[INVISIBLE][brightness];
 							}
 							
 							//right side
@@ -247,37 +268,57 @@ public class FogOfWar extends Image {
 									
 									//if below-right is also a wall, then we should be dark no matter what.
 									if (wall(cell + mapWidth + 1)) {
-										fillRight(fog, j, i, FOG_COLORS[INVISIBLE][brightness]);
+										right = FOG_COLORS[INVISIBLE][brightness];
 									} else {
-										fillRight(fog, j, i, FOG_COLORS[Math.max(getCellFog(cell), Math.max(getCellFog(cell + mapWidth + 1), getCellFog(cell + 1)))][brightness]);
+										right = FOG_COLORS[Math.max(getCellFog(cell), Math.max(getCellFog(cell + mapWidth + 1), getCellFog(cell + 1)))][brightness];
 									}
 									
 								} else {
-									fillRight(fog, j, i, FOG_COLORS[Math.max(getCellFog(cell), getCellFog(cell + 1))][brightness]);
+									right = FOG_COLORS[Math.max(getCellFog(cell), getCellFog(cell + 1))][brightness];
 								}
 								
 							} else {
-								fillRight(fog, j, i, FOG_COLORS[INVISIBLE][brightness]);
+								right = FOG_COLORS[INVISIBLE][brightness];
 							}
 							
 						//camera-facing wall tiles
 						//darkest between themselves and the tile below them
 						} else {
-							fillCell(fog, j, i, FOG_COLORS[Math.max(getCellFog(cell), getCellFog(cell + mapWidth))][brightness]);
+							left = right = FOG_COLORS[Math.max(getCellFog(cell), getCellFog(cell + mapWidth))][brightness];
 						}
 						
 					//other tiles, just their direct value
 					} else {
-						fillCell(fog, j, i, FOG_COLORS[getCellFog(cell)][brightness]);
+						left = right = FOG_COLORS[getCellFog(cell)][brightness];
 					}
-					
-					cell++;
+
+					if (left == shownLeft[cell] && right == shownRight[cell]) {
+						continue;
+					}
+					shownLeft[cell] = left;
+					shownRight[cell] = right;
+
+					if (left == right) {
+						fillCell(fog, j, i, left);
+					} else {
+						fillLeft(fog, j, i, left);
+						fillRight(fog, j, i, right);
+					}
+					changed.union(j, i);
 				}
 			}
-			
+
+			if (!changed.isEmpty()) {
+				merge(uploads, changed);
+			}
 		}
-		
-		texture.bitmap(fog);
+
+		//only the redrawn parts of the texture are sent to the GPU
+		for (Rect r : uploads) {
+			texture.bitmap(fog, r.left * PIX_PER_TILE, r.top * PIX_PER_TILE,
+					r.width() * PIX_PER_TILE, r.height() * PIX_PER_TILE);
+		}
+		uploads.clear();
 
 	}
 	
@@ -39,7 +39,7 @@ import com.shatteredpixel.shatteredpixeldungeon.windows.WndKeyBindings;
 import com.watabou.input.GameAction;
 import com.watabou.noosa.Image;
 import com.watabou.utils.BArray;
-import com.watabou.utils.PathFinder;
+import com.watabou.utils.PathContext;
 
 public class QuickSlotButton extends Button {
 	
@@ -343,12 +343,14 @@ public class QuickSlotButton extends Button {
 
 	}
 
+	private static final PathContext autoAimPath = new PathContext();
+
 	public static int autoAim(Char target){
 		//will use generic projectile logic if no item is specified
 		return autoAim(target, new Item());
 	}
 
-	//FIXME: this is currently very expensive, should either optimize ballistica or this, or both
+	//most items trace their target with Ballistic.trace, so repeating this within a turn is cheap
 	public static int autoAim(Char target, Item item){
 		if (Dungeon.hero == null || target == null){
 			return -1;
@@ -360,9 +362,11 @@ public class QuickSlotButton extends Button {
 		}
 
 		//Otherwise pick nearby tiles to try and 'angle' the shot, auto-aim basically.
-		PathFinder.buildDistanceMap( target.pos, BArray.not( new boolean[Dungeon.level.length()], null ), 2 );
-		for (int i = 0; i < PathFinder.distance.length; i++) {
-			if (PathFinder.distance[i] < Integer.MAX_VALUE
+		//this runs on the render thread, so it can't share PathFinder's state with the actor thread
+		autoAimPath.setMapSize( Dungeon.level.width(), Dungeon.level.height() );
+		autoAimPath.buildDistanceMap( target.pos, BArray.not( new boolean[Dungeon.level.length()], null ), 2 );
+		for (int i = 0; i < autoAimPath.distance.length; i++) {
+			if (autoAimPath.distance[i] < Integer.MAX_VALUE
 					&& item.targetingPos(Dungeon.hero, i) == target.pos)
 				return i;
 		}
@@ -0,0 +1,103 @@
+# -*- coding: utf-8 -*-
+# Requires Pillow for Python 3
+
+# Bakes the hexagonal tile atlases which HexTileMap would otherwise cut from the square
+# atlases every time the game starts. The baked atlases and a manifest are written to
+# <assets>/hex<VERSION>/, next to the originals. The manifest records a crc32 of each source,
+# so the game ignores a baked atlas once its source changes and cuts that one itself again.
+#
+# Usage: python3 bake_hex_tiles.py [assets folder] [atlas ...]
+# By default every environment/tiles_*.png and environment/wall_blocking.png is baked.
+
+import glob
+import os
+import sys
+import zlib
+from PIL import Image
+
+# --- Configuration ---
+
+# Must match HexTileMap.BAKE_VERSION, bump both whenever the cutting changes
+VERSION = 1
+
+ASSETS_FOLDER = '../core/src/main/assets'
+
+DEFAULT_ATLASES = ['environment/tiles_*.png', 'environment/wall_blocking.png']
+
+SIZE = 16
+HEX_WIDTH = 18
+HEX_HEIGHT = 16
+
+# --- Cutting, the same as HexTileMap.cut ---
+
+def cut(original):
+    cols = original.width // SIZE
+    rows = original.height // SIZE
+
+    src = original.load()
+    hexagonal = Image.new('RGBA', (cols * HEX_WIDTH, original.height), (0, 0, 0, 0))
+    dst = hexagonal.load()
+
+    def copy(hx, hy, x, y):
+        color = src[x, y]
+        # the game draws with blending onto a transparent atlas, which leaves these empty
+        dst[hx, hy] = color if color[3] != 0 else (0, 0, 0, 0)
+
+    for i in range(cols):
+        for j in range(rows):
+            for px in range(SIZE):
+                for py in range(SIZE):
+                    d1 = 2 * (-6 + 2 * px + py) + 2 + 1
+                    d2 = 2 * (26 - 2 * px + py) - 2 + 1
+                    d3 = 2 * (42 - 2 * px - py) - 2 - 1
+                    d4 = 2 * (10 + 2 * px - py) + 2 - 1
+
+                    if min(d1, d2, d3, d4) < 0:
+                        continue
+
+                    copy(i * HEX_WIDTH + px + 1, j * SIZE + py, i * SIZE + px, j * SIZE + py)
+
+            copy(i * HEX_WIDTH + 0,  j * HEX_HEIGHT + 7, i * SIZE + 0,  j * SIZE + 7)
+            copy(i * HEX_WIDTH + 0,  j * HEX_HEIGHT + 8, i * SIZE + 0,  j * SIZE + 8)
+            copy(i * HEX_WIDTH + 17, j * HEX_HEIGHT + 7, i * SIZE + 15, j * SIZE + 7)
+            copy(i * HEX_WIDTH + 17, j * HEX_HEIGHT + 8, i * SIZE + 15, j * SIZE + 8)
+
+    return hexagonal
+
+
+def main():
+    assets = sys.argv[1] if len(sys.argv) > 1 else ASSETS_FOLDER
+    patterns = sys.argv[2:] or DEFAULT_ATLASES
+
+    if not os.path.isdir(assets):
+        print(f"Error: assets directory '{assets}' not found.")
+        sys.exit(1)
+
+    out_folder = os.path.join(assets, f'hex{VERSION}')
+
+    atlases = []
+    for pattern in patterns:
+        for path in sorted(glob.glob(os.path.join(assets, pattern))):
+            atlases.append(os.path.relpath(path, assets).replace(os.sep, '/'))
+
+    manifest = []
+    for atlas in atlases:
+        source = os.path.join(assets, atlas)
+        with open(source, 'rb') as f:
+            crc = zlib.crc32(f.read()) & 0xFFFFFFFF
+
+        output = os.path.join(out_folder, atlas)
+        os.makedirs(os.path.dirname(output), exist_ok=True)
+        cut(Image.open(source).convert('RGBA')).save(output)
+
+        manifest.append(f'{atlas} {crc}')
+        print(f" Baked: {atlas}")
+
+    with open(os.path.join(out_folder, 'manifest.txt'), 'w') as f:
+        f.write('\n'.join(manifest) + '\n')
+
+    print(f"Baked {len(manifest)} atlases into {out_folder}")
+
+
+if __name__ == "__main__":
+    main()